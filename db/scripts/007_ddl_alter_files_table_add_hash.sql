@@ -0,0 +1,2 @@
+alter table files add column hash varchar;
+alter table files add column creation_date timestamp default current_timestamp;
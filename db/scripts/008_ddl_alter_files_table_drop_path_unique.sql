@@ -0,0 +1,6 @@
+alter table files add column blob_path varchar;
+update files set blob_path = path;
+alter table files drop column path;
+alter table files rename column blob_path to path;
+alter table files alter column path set not null;
+create index files_path_index on files(path);
@@ -0,0 +1 @@
+alter table files add column size bigint not null default 0;
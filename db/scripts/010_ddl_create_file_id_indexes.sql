@@ -0,0 +1,2 @@
+create index vacancies_file_id_index on vacancies(file_id);
+create index candidates_file_id_index on candidates(file_id);
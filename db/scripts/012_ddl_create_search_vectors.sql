@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset dreamjob:012_ddl_create_search_vectors dbms:postgresql
+alter table vacancies add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(title, '')), 'A')
+    || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+alter table candidates add column search_vector tsvector generated always as (
+    setweight(to_tsvector('russian', coalesce(name, '')), 'A')
+    || setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+) stored;
+create index vacancies_search_vector_index on vacancies using gin(search_vector);
+create index candidates_search_vector_index on candidates using gin(search_vector);
@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset dreamjob:013_ddl_create_list_filter_indexes dbms:postgresql
+create index vacancies_city_id_visible_creation_date_id_index
+    on vacancies(city_id, visible, creation_date desc, id desc) include (title);
+create index vacancies_visible_creation_date_id_index
+    on vacancies(visible, creation_date desc, id desc) include (title, city_id);
+create index candidates_city_id_creation_date_id_index
+    on candidates(city_id, creation_date desc, id desc) include (name);
+
+--changeset dreamjob:013_ddl_create_list_filter_indexes_without_include dbms:!postgresql
+create index vacancies_city_id_visible_creation_date_id_index
+    on vacancies(city_id, visible, creation_date desc, id desc);
+create index vacancies_visible_creation_date_id_index
+    on vacancies(visible, creation_date desc, id desc);
+create index candidates_city_id_creation_date_id_index
+    on candidates(city_id, creation_date desc, id desc);
@@ -0,0 +1,328 @@
+package ru.job4j.dreamjob;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.job4j.dreamjob.service.FileStorageLayout;
+
+import javax.imageio.ImageIO;
+import javax.sql.DataSource;
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+
+/* Заполнение базы большим объёмом правдоподобных данных для нагрузочных тестов и бенчмарков.
+Запуск рядом с Main, с теми же настройками из application.properties, которые можно переопределить:
+    java -cp ... ru.job4j.dreamjob.SeedDataGenerator --vacancies=1000000 --candidates=1000000
+        --users=100000 --blobs=200 --batch-size=1000 --datasource.url=jdbc:h2:./testdb;MODE=PostgreSQL
+Тексты на кириллице: заголовок из нескольких слов, описание из числа предложений с логнормальным
+распределением - большинство описаний короткие, но встречаются и длинные, как в настоящих вакансиях.
+У каждой вакансии и каждого резюме своя строка files, а картинки-заглушки (blobs штук) пишутся
+в file.directory один раз и делятся между строками, как в режиме file.storage.mode=content.
+Все пользователи получают пароль "password"; bcrypt считается один раз, и хэш у всех одинаковый.
+Строки вставляются пакетами JDBC с фиксацией после каждого пакета */
+public class SeedDataGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SeedDataGenerator.class.getName());
+
+    private static final String PASSWORD = "password";
+
+    private static final int PROGRESS_STEP = 100_000;
+
+    private static final String[] LEVELS = {"Младший", "Старший", "Ведущий", "Главный", "Стажёр", ""};
+
+    private static final String[] ROLES = {"Java-разработчик", "backend-разработчик", "аналитик данных",
+            "тестировщик", "DevOps-инженер", "frontend-разработчик", "системный аналитик", "архитектор",
+            "руководитель команды", "инженер по данным", "Kotlin-разработчик", "Python-разработчик"};
+
+    /* мужские и женские имена чередуются: чётный индекс - мужское */
+    private static final String[] FIRST_NAMES = {"Иван", "Анна", "Пётр", "Мария", "Алексей", "Ольга", "Дмитрий",
+            "Екатерина", "Сергей", "Наталья", "Андрей", "Татьяна", "Михаил", "Юлия", "Николай", "Елена"};
+
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров",
+            "Соколов", "Михайлов", "Новиков", "Фёдоров", "Морозов", "Волков", "Алексеев", "Лебедев"};
+
+    private static final String[] WORDS = {"разработка", "сервисов", "команда", "проект", "опыт", "работы",
+            "с", "и", "в", "на", "база", "данных", "PostgreSQL", "Spring", "микросервисы", "задачи",
+            "поддержка", "высоконагруженных", "систем", "офис", "удалённо", "график", "гибкий", "зарплата",
+            "рынка", "обучение", "за", "счёт", "компании", "код", "ревью", "тесты", "архитектура", "продукт",
+            "клиентов", "очереди", "Kafka", "контейнеры", "Docker", "Kubernetes", "мониторинг", "метрики",
+            "оптимизация", "запросов", "интеграция", "API", "документация", "наставничество", "релизы"};
+
+    private final DataSource dataSource;
+
+    private final FileStorageLayout layout;
+
+    private final int batchSize;
+
+    private final Random random;
+
+    private final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+    public SeedDataGenerator(DataSource dataSource, FileStorageLayout layout, int batchSize, long seed) {
+        this.dataSource = dataSource;
+        this.layout = layout;
+        this.batchSize = batchSize;
+        this.random = new Random(seed);
+    }
+
+    public void generate(int users, int vacancies, int candidates, int blobs) throws SQLException, IOException {
+        try (var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            if (isPostgres(connection)) {
+                try (var statement = connection.createStatement()) {
+                    statement.execute("SET synchronous_commit = off");
+                }
+            }
+            var cityIds = findCityIds(connection);
+            var paths = writeBlobs(Math.max(1, blobs));
+            insertUsers(connection, users);
+            var vacancyFiles = insertFiles(connection, vacancies, paths);
+            insertVacancies(connection, vacancyFiles, cityIds);
+            var candidateFiles = insertFiles(connection, candidates, paths);
+            insertCandidates(connection, candidateFiles, cityIds);
+        }
+    }
+
+    private static boolean isPostgres(Connection connection) throws SQLException {
+        return "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+    }
+
+    private static int[] findCityIds(Connection connection) throws SQLException {
+        var ids = new ArrayList<Integer>();
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT id FROM cities")) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getInt(1));
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("Справочник cities пуст: сначала примените миграции Liquibase");
+        }
+        return ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /* картинки-заглушки разного цвета и размера; имя - SHA-256 содержимого, как в хранилище по содержимому */
+    private List<Blob> writeBlobs(int count) throws IOException {
+        var blobs = new ArrayList<Blob>(count);
+        for (int i = 0; i < count; i++) {
+            var image = new BufferedImage(160 + random.nextInt(640), 120 + random.nextInt(480),
+                    BufferedImage.TYPE_INT_RGB);
+            var graphics = image.createGraphics();
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.drawString("dreamjob " + i, 10, 20);
+            graphics.dispose();
+            var out = new ByteArrayOutputStream();
+            ImageIO.write(image, "png", out);
+            var content = out.toByteArray();
+            var hash = sha256(content);
+            var path = layout.resolve(hash);
+            Files.createDirectories(path.getParent());
+            Files.write(path, content);
+            blobs.add(new Blob(path.toString(), hash, content.length));
+        }
+        return blobs;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void insertUsers(Connection connection, int count) throws SQLException {
+        var hash = new BCryptPasswordEncoder().encode(PASSWORD);
+        var offset = maxId(connection, "users");
+        insert(connection, "users", "INSERT INTO users(email, name, password) VALUES (?, ?, ?)", count,
+                (statement, i) -> {
+                    statement.setString(1, "user" + (offset + i) + "@example.ru");
+                    statement.setString(2, personName());
+                    statement.setString(3, hash);
+                }, false);
+    }
+
+    private static long maxId(Connection connection, String table) throws SQLException {
+        try (var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT coalesce(max(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private int[] insertFiles(Connection connection, int count, List<Blob> blobs) throws SQLException {
+        return insert(connection, "files",
+                "INSERT INTO files(name, path, hash, size, creation_date) VALUES (?, ?, ?, ?, ?)", count,
+                (statement, i) -> {
+                    var blob = blobs.get(random.nextInt(blobs.size()));
+                    statement.setString(1, "photo" + i + ".png");
+                    statement.setString(2, blob.path());
+                    statement.setString(3, blob.hash());
+                    statement.setLong(4, blob.size());
+                    statement.setTimestamp(5, randomDate());
+                }, true);
+    }
+
+    private void insertVacancies(Connection connection, int[] fileIds, int[] cityIds) throws SQLException {
+        insert(connection, "vacancies", "INSERT INTO vacancies(title, description, creation_date, visible, "
+                + "city_id, file_id) VALUES (?, ?, ?, ?, ?, ?)", fileIds.length,
+                (statement, i) -> {
+                    statement.setString(1, title());
+                    statement.setString(2, description());
+                    statement.setTimestamp(3, randomDate());
+                    statement.setBoolean(4, random.nextInt(10) < 8);
+                    statement.setInt(5, cityIds[random.nextInt(cityIds.length)]);
+                    statement.setInt(6, fileIds[i]);
+                }, false);
+    }
+
+    private void insertCandidates(Connection connection, int[] fileIds, int[] cityIds) throws SQLException {
+        insert(connection, "candidates", "INSERT INTO candidates(name, description, creation_date, "
+                + "city_id, file_id) VALUES (?, ?, ?, ?, ?)", fileIds.length,
+                (statement, i) -> {
+                    statement.setString(1, personName());
+                    statement.setString(2, description());
+                    statement.setTimestamp(3, randomDate());
+                    statement.setInt(4, cityIds[random.nextInt(cityIds.length)]);
+                    statement.setInt(5, fileIds[i]);
+                }, false);
+    }
+
+    /* пакетная вставка count строк; при generatedKeys возвращает id вставленных строк по порядку */
+    private int[] insert(Connection connection, String table, String sql, int count,
+                         RowWriter writer, boolean generatedKeys) throws SQLException {
+        var ids = new int[generatedKeys ? count : 0];
+        var start = System.nanoTime();
+        try (var statement = generatedKeys
+                ? connection.prepareStatement(sql, new String[] {"id"})
+                : connection.prepareStatement(sql)) {
+            var inserted = 0;
+            while (inserted < count) {
+                var batch = Math.min(batchSize, count - inserted);
+                for (int i = 0; i < batch; i++) {
+                    writer.write(statement, inserted + i);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                if (generatedKeys) {
+                    try (var keys = statement.getGeneratedKeys()) {
+                        for (int i = inserted; keys.next(); i++) {
+                            ids[i] = keys.getInt(1);
+                        }
+                    }
+                }
+                connection.commit();
+                inserted += batch;
+                if (inserted % PROGRESS_STEP < batch || inserted == count) {
+                    LOG.info("{}: {} из {}", table, inserted, count);
+                }
+            }
+        }
+        var seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        LOG.info("{}: {} строк за {} с, {} строк/с", table, count, String.format("%.1f", seconds),
+                Math.round(count / seconds));
+        return ids;
+    }
+
+    private String title() {
+        var level = LEVELS[random.nextInt(LEVELS.length)];
+        var role = ROLES[random.nextInt(ROLES.length)];
+        return level.isEmpty() ? capitalize(role) : level + " " + role;
+    }
+
+    private String personName() {
+        var female = random.nextBoolean();
+        var first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length / 2) * 2 + (female ? 1 : 0)];
+        var last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        return (female ? last + "а" : last) + " " + first;
+    }
+
+    /* число предложений распределено логнормально: медиана 7, редкие описания длиннее 40 предложений */
+    private String description() {
+        var sentences = (int) Math.min(60, Math.max(1, Math.round(Math.exp(2.0 + 0.6 * random.nextGaussian()))));
+        var text = new StringBuilder();
+        for (int s = 0; s < sentences; s++) {
+            var words = 6 + random.nextInt(9);
+            for (int w = 0; w < words; w++) {
+                var word = WORDS[random.nextInt(WORDS.length)];
+                text.append(w == 0 ? capitalize(word) : word).append(w == words - 1 ? ". " : " ");
+            }
+        }
+        return text.toString().trim();
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    /* равномерно за последний год */
+    private Timestamp randomDate() {
+        return Timestamp.valueOf(now.minusSeconds(random.nextInt(365 * 24 * 60 * 60)));
+    }
+
+    private record Blob(String path, String hash, long size) {
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(PreparedStatement statement, int index) throws SQLException;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var properties = new Properties();
+        try (InputStream in = SeedDataGenerator.class.getClassLoader().getResourceAsStream("application.properties")) {
+            if (in != null) {
+                properties.load(in);
+            }
+        }
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            properties.setProperty(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        try (var dataSource = new BasicDataSource()) {
+            dataSource.setUrl(withBatchRewrite(properties.getProperty("datasource.url")));
+            dataSource.setUsername(properties.getProperty("datasource.username"));
+            dataSource.setPassword(properties.getProperty("datasource.password"));
+            var layout = new FileStorageLayout(properties.getProperty("file.directory", "files"),
+                    Integer.parseInt(properties.getProperty("file.directory.levels", "0")));
+            new SeedDataGenerator(dataSource, layout,
+                    Integer.parseInt(properties.getProperty("batch-size", "1000")),
+                    Long.parseLong(properties.getProperty("seed", "42")))
+                    .generate(Integer.parseInt(properties.getProperty("users", "10000")),
+                            Integer.parseInt(properties.getProperty("vacancies", "100000")),
+                            Integer.parseInt(properties.getProperty("candidates", "100000")),
+                            Integer.parseInt(properties.getProperty("blobs", "100")));
+        }
+    }
+
+    /* драйвер PostgreSQL склеивает пакет INSERT в многострочные запросы только с этим параметром */
+    private static String withBatchRewrite(String url) {
+        if (!url.startsWith("jdbc:postgresql:") || url.contains("reWriteBatchedInserts")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+    }
+}
@@ -0,0 +1,27 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.service.EntityCache;
+
+import java.time.Duration;
+
+/* Кэши вакансий и резюме по id; размер и время жизни задаются для каждой сущности отдельно */
+@Configuration
+public class CacheConfiguration {
+
+    @Bean
+    public EntityCache<Vacancy> vacancyCache(@Value("${cache.vacancies.max-size:1000}") int maxSize,
+                                             @Value("${cache.vacancies.ttl:PT5M}") Duration ttl) {
+        return new EntityCache<>("vacancies", maxSize, ttl);
+    }
+
+    @Bean
+    public EntityCache<Candidate> candidateCache(@Value("${cache.candidates.max-size:1000}") int maxSize,
+                                                 @Value("${cache.candidates.ttl:PT5M}") Duration ttl) {
+        return new EntityCache<>("candidates", maxSize, ttl);
+    }
+}
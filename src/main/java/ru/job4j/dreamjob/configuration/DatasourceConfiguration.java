@@ -1,35 +1,70 @@
 package ru.job4j.dreamjob.configuration;
 
-import org.apache.commons.dbcp2.BasicDataSource;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.sql2o.Sql2o;
 import org.sql2o.converters.Converter;
 import org.sql2o.converters.ConverterException;
 import org.sql2o.quirks.NoQuirks;
 import org.sql2o.quirks.Quirks;
+import ru.job4j.dreamjob.metrics.InstrumentedDataSource;
+import ru.job4j.dreamjob.metrics.StatementStatistics;
 
 import javax.sql.DataSource;
 import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
 
 @Configuration
+@EnableConfigurationProperties(DatasourcePoolProperties.class)
 public class DatasourceConfiguration {
 
     @Bean
-    public DataSource connectionPool(@Value("${datasource.url}") String url,
-                                     @Value("${datasource.username}") String username,
-                                     @Value("${datasource.password}") String password) {
-        return new BasicDataSource() {
+    public InstrumentedDataSource connectionPool(@Value("${datasource.url}") String url,
+                                                 @Value("${datasource.username}") String username,
+                                                 @Value("${datasource.password}") String password,
+                                                 DatasourcePoolProperties pool) {
+        return new InstrumentedDataSource() {
             {
                 setUrl(url);
                 setUsername(username);
                 setPassword(password);
+                setInitialSize(pool.getInitialSize());
+                setMaxTotal(pool.getMaxTotal());
+                setMaxIdle(pool.getMaxIdle());
+                setMinIdle(pool.getMinIdle());
+                setMaxWaitMillis(pool.getMaxWait().toMillis());
+                setTestOnBorrow(pool.isTestOnBorrow());
+                setTestWhileIdle(pool.isTestWhileIdle());
+                setValidationQueryTimeout((int) pool.getValidationQueryTimeout().toSeconds());
+                setPoolPreparedStatements(pool.isPoolPreparedStatements());
+                setMaxOpenPreparedStatements(pool.getMaxOpenPreparedStatements());
+                setTimeBetweenEvictionRunsMillis(pool.getTimeBetweenEvictionRuns().toMillis());
+                setMinEvictableIdleTimeMillis(pool.getMinEvictableIdleTime().toMillis());
+                setNumTestsPerEvictionRun(pool.getNumTestsPerEvictionRun());
             }
         };
     }
 
+    @Bean
+    public StatementStatistics statementStatistics(
+            @Value("${datasource.statements.slow-threshold:PT0.2S}") Duration slowThreshold,
+            @Value("${datasource.statements.max-shapes:500}") int maxShapes) {
+        return new StatementStatistics(slowThreshold, maxShapes);
+    }
+
+    /* Sql2o получает соединения через обёртку со статистикой запросов,
+    а сам пул остаётся отдельным бином: его состояние читают метрики */
+    @Bean
+    @Primary
+    public DataSource statementTracingDataSource(InstrumentedDataSource connectionPool,
+                                                 StatementStatistics statementStatistics) {
+        return statementStatistics.wrap(connectionPool);
+    }
+
     @Bean
     public Sql2o databaseClient(DataSource dataSource) {
         return new Sql2o(dataSource, createConverters());
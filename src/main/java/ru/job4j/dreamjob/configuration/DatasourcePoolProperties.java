@@ -0,0 +1,141 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/* Настройки пула соединений datasource.pool.*; значения по умолчанию рассчитаны на небольшой сервер */
+@ConfigurationProperties(prefix = "datasource.pool")
+public class DatasourcePoolProperties {
+
+    private int initialSize = 2;
+
+    private int maxTotal = 20;
+
+    private int maxIdle = 10;
+
+    private int minIdle = 2;
+
+    /* сколько ждать свободное соединение, прежде чем запрос упадёт; у dbcp2 по умолчанию - бесконечно */
+    private Duration maxWait = Duration.ofSeconds(5);
+
+    private boolean testOnBorrow = true;
+
+    private boolean testWhileIdle = true;
+
+    private Duration validationQueryTimeout = Duration.ofSeconds(2);
+
+    private boolean poolPreparedStatements = true;
+
+    private int maxOpenPreparedStatements = 100;
+
+    private Duration timeBetweenEvictionRuns = Duration.ofSeconds(30);
+
+    private Duration minEvictableIdleTime = Duration.ofMinutes(5);
+
+    private int numTestsPerEvictionRun = 3;
+
+    public int getInitialSize() {
+        return initialSize;
+    }
+
+    public void setInitialSize(int initialSize) {
+        this.initialSize = initialSize;
+    }
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public Duration getMaxWait() {
+        return maxWait;
+    }
+
+    public void setMaxWait(Duration maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    public boolean isTestOnBorrow() {
+        return testOnBorrow;
+    }
+
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+    }
+
+    public boolean isTestWhileIdle() {
+        return testWhileIdle;
+    }
+
+    public void setTestWhileIdle(boolean testWhileIdle) {
+        this.testWhileIdle = testWhileIdle;
+    }
+
+    public Duration getValidationQueryTimeout() {
+        return validationQueryTimeout;
+    }
+
+    public void setValidationQueryTimeout(Duration validationQueryTimeout) {
+        this.validationQueryTimeout = validationQueryTimeout;
+    }
+
+    public boolean isPoolPreparedStatements() {
+        return poolPreparedStatements;
+    }
+
+    public void setPoolPreparedStatements(boolean poolPreparedStatements) {
+        this.poolPreparedStatements = poolPreparedStatements;
+    }
+
+    public int getMaxOpenPreparedStatements() {
+        return maxOpenPreparedStatements;
+    }
+
+    public void setMaxOpenPreparedStatements(int maxOpenPreparedStatements) {
+        this.maxOpenPreparedStatements = maxOpenPreparedStatements;
+    }
+
+    public Duration getTimeBetweenEvictionRuns() {
+        return timeBetweenEvictionRuns;
+    }
+
+    public void setTimeBetweenEvictionRuns(Duration timeBetweenEvictionRuns) {
+        this.timeBetweenEvictionRuns = timeBetweenEvictionRuns;
+    }
+
+    public Duration getMinEvictableIdleTime() {
+        return minEvictableIdleTime;
+    }
+
+    public void setMinEvictableIdleTime(Duration minEvictableIdleTime) {
+        this.minEvictableIdleTime = minEvictableIdleTime;
+    }
+
+    public int getNumTestsPerEvictionRun() {
+        return numTestsPerEvictionRun;
+    }
+
+    public void setNumTestsPerEvictionRun(int numTestsPerEvictionRun) {
+        this.numTestsPerEvictionRun = numTestsPerEvictionRun;
+    }
+}
@@ -0,0 +1,30 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import ru.job4j.dreamjob.metrics.HandlerTimingInterceptor;
+import ru.job4j.dreamjob.metrics.MetricsRegistry;
+import ru.job4j.dreamjob.metrics.RepositoryTimingPostProcessor;
+
+@Configuration
+public class MetricsConfiguration {
+
+    /* реестр нужен пост-процессору, который Spring создаёт раньше остальных бинов; оба метода static,
+    чтобы ради них не поднимать сам класс конфигурации до обработки бинов */
+    @Bean
+    public static MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    /* бины MappedInterceptor Spring MVC сам добавляет ко всем HandlerMapping */
+    @Bean
+    public MappedInterceptor handlerTimingInterceptor(MetricsRegistry metricsRegistry) {
+        return new MappedInterceptor(null, new HandlerTimingInterceptor(metricsRegistry));
+    }
+
+    @Bean
+    public static RepositoryTimingPostProcessor repositoryTimingPostProcessor(MetricsRegistry metricsRegistry) {
+        return new RepositoryTimingPostProcessor(metricsRegistry);
+    }
+}
@@ -0,0 +1,11 @@
+package ru.job4j.dreamjob.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/* Фоновые задачи по расписанию (@Scheduled) выполняются в отдельном потоке планировщика,
+а не в потоках обработки запросов */
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+}
@@ -5,6 +5,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.service.CandidateService;
 import ru.job4j.dreamjob.service.CityService;
@@ -23,10 +25,15 @@ public class CandidateController {
     }
 
     @GetMapping
-    public String getAll(Model model) {
-        model.addAttribute("candidates",
-                candidateService.findAll());
-
+    public String getAll(Model model,
+                         @ModelAttribute("filter") ListFilter filter,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "" + Page.DEFAULT_SIZE) int size) {
+        var page = candidateService.findPage(cursor, filter, size);
+        model.addAttribute("candidates", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("cities", cityService.findAll());
         return "candidates/list";
     }
 
@@ -45,7 +52,7 @@ public class CandidateController {
         try {
             candidateService.save(candidate,
                     new FileDto(file.getOriginalFilename(),
-                            file.getBytes()));
+                            file.getSize(), file));
         return "redirect:/candidates";
         } catch (Exception exception) {
             model.addAttribute("message", exception.getMessage());
@@ -75,7 +82,7 @@ public class CandidateController {
         try {
             var isUpdated = candidateService.update(candidate,
                     new FileDto(file.getOriginalFilename(),
-                            file.getBytes()));
+                            file.getSize(), file));
             if (!isUpdated) {
                 model.addAttribute("message", "Резюме с указанным идентификатором не найдено");
                 return "errors/404";
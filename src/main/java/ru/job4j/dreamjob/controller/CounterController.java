@@ -1,15 +0,0 @@
-package ru.job4j.dreamjob.controller;
-
-import org.springframework.web.bind.annotation.GetMapping;
-
-import java.util.concurrent.atomic.AtomicInteger;
-
-public class CounterController {
-    private final AtomicInteger total = new AtomicInteger(0);
-
-    @GetMapping("/count")
-    public String count() {
-        int value = total.incrementAndGet();
-        return String.format("Total executed : %d", value);
-    }
-}
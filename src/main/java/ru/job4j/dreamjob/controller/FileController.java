@@ -1,16 +1,37 @@
 package ru.job4j.dreamjob.controller;
 
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.job4j.dreamjob.dto.FileResourceDto;
 import ru.job4j.dreamjob.service.FileService;
 
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/files")
 public class FileController {
 
+    /* файл по своему id никогда не перезаписывается, поэтому его можно кэшировать "навсегда";
+    private - потому что файлы отдаются только авторизованным пользователям */
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(365, TimeUnit.DAYS).cachePrivate();
+
+    /* оригинал вместо ещё не готовой миниатюры: браузер перепроверит его и получит копию, когда она появится */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     private final FileService fileService;
 
     public FileController(FileService fileService) {
@@ -18,11 +39,85 @@ public class FileController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<?> getById(@PathVariable int id) {
-        var contentOptional = fileService.getFileById(id);
+    public ResponseEntity<Resource> getById(@PathVariable int id,
+                                            @RequestParam(name = "w", required = false) Integer width,
+                                            WebRequest request) throws IOException {
+        var contentOptional = width == null
+                ? fileService.getFileResourceById(id)
+                : fileService.getFileResourceById(id, width);
         if (contentOptional.isEmpty()) {
             return ResponseEntity.notFound().build();
         }
-        return ResponseEntity.ok(contentOptional.get().getContent());
+        var file = contentOptional.get();
+        var lastModified = getLastModified(file);
+        /* проверка If-None-Match/If-Modified-Since идёт только по метаданным из БД, диск не трогается */
+        if (request.checkNotModified(file.getHash(), lastModified)) {
+            return withValidators(ResponseEntity.status(HttpStatus.NOT_MODIFIED), file, lastModified)
+                    .build();
+        }
+        /* Range обрабатывает сам Spring MVC для Resource в ответе 200: 206 с Content-Range,
+        multipart/byteranges для нескольких диапазонов и 416 для неверных. Регион читается потоком
+        из Files.newInputStream, у которого skip() - это позиционирование FileChannel,
+        поэтому с диска читаются только запрошенные байты */
+        var ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (request.getHeader(HttpHeaders.RANGE) != null
+                && !isIfRangeSatisfied(ifRange, file.getHash(), lastModified)) {
+            return getWholeFileIgnoringRange(file, lastModified);
+        }
+        return withValidators(ResponseEntity.ok(), file, lastModified)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(getMediaType(file))
+                .body(file.getContent());
+    }
+
+    /* при несовпавшем If-Range нужен весь файл; InputStreamResource Spring на диапазоны не нарезает */
+    private ResponseEntity<Resource> getWholeFileIgnoringRange(FileResourceDto file,
+                                                               long lastModified) throws IOException {
+        var content = file.getContent();
+        return withValidators(ResponseEntity.ok(), file, lastModified)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentLength(content.contentLength())
+                .contentType(getMediaType(file))
+                .body(new InputStreamResource(content.getInputStream()));
+    }
+
+    /* If-Range выполняется, если в нём наш сильный ETag или точная дата Last-Modified */
+    private boolean isIfRangeSatisfied(String ifRange, String hash, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return hash != null && ifRange.equals("\"" + hash + "\"");
+        }
+        var headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_RANGE, ifRange);
+        try {
+            return lastModified >= 0 && headers.getFirstDate(HttpHeaders.IF_RANGE) == lastModified / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder builder,
+                                                      FileResourceDto file, long lastModified) {
+        if (file.getHash() != null) {
+            builder.eTag(file.getHash());
+        }
+        if (lastModified >= 0) {
+            builder.lastModified(lastModified);
+        }
+        return builder.cacheControl(file.isCacheable() ? CACHE_CONTROL : REVALIDATE);
+    }
+
+    /* тип берётся по исходному имени: блоб в хранилище по содержимому лежит без расширения */
+    private MediaType getMediaType(FileResourceDto file) {
+        return MediaTypeFactory.getMediaType(file.getName()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private long getLastModified(FileResourceDto file) {
+        if (file.getLastModified() == null) {
+            return -1;
+        }
+        return file.getLastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package ru.job4j.dreamjob.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.job4j.dreamjob.metrics.InstrumentedDataSource;
+import ru.job4j.dreamjob.metrics.MetricsRegistry;
+import ru.job4j.dreamjob.metrics.PrometheusFormat;
+import ru.job4j.dreamjob.metrics.StatementStatistics;
+import ru.job4j.dreamjob.service.EntityCache;
+import ru.job4j.dreamjob.service.FileGarbageCollector;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/* Текущие метрики приложения в формате Prometheus. Сессия сборщику не нужна: AuthorizationFilter пускает сюда
+только с адресов из metrics.allowed-addresses или с токеном metrics.token, остальным отвечает 403 */
+@RestController
+public class MetricsController {
+
+    private final InstrumentedDataSource dataSource;
+
+    private final List<EntityCache<?>> caches;
+
+    private final MetricsRegistry metricsRegistry;
+
+    private final StatementStatistics statementStatistics;
+
+    /* сборщика мусора хранилища нет, если file.gc.enabled=false */
+    private final Optional<FileGarbageCollector> fileGarbageCollector;
+
+    public MetricsController(InstrumentedDataSource dataSource, List<EntityCache<?>> caches,
+                             MetricsRegistry metricsRegistry, StatementStatistics statementStatistics,
+                             Optional<FileGarbageCollector> fileGarbageCollector) {
+        this.dataSource = dataSource;
+        this.caches = caches;
+        this.metricsRegistry = metricsRegistry;
+        this.statementStatistics = statementStatistics;
+        this.fileGarbageCollector = fileGarbageCollector;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> getMetrics() {
+        var metrics = new PrometheusFormat()
+                .gauge("dreamjob_db_pool_active", "Соединения, выданные из пула", dataSource.getNumActive())
+                .gauge("dreamjob_db_pool_idle", "Свободные соединения в пуле", dataSource.getNumIdle())
+                .gauge("dreamjob_db_pool_waiters", "Потоки, ждущие соединение", dataSource.getNumWaiters())
+                .gauge("dreamjob_db_pool_max", "Максимальный размер пула", dataSource.getMaxTotal())
+                .histogram("dreamjob_db_pool_wait_seconds", "Время получения соединения из пула",
+                        dataSource.getConnectionWait())
+                .histogram("dreamjob_db_statement_duration_seconds", "Время выполнения SQL-запросов с выборкой строк",
+                        statementStatistics.getDuration())
+                .counter("dreamjob_db_statement_rows_total", "Строки, выбранные или изменённые запросами",
+                        statementStatistics.getRows())
+                .counter("dreamjob_db_statement_errors_total", "Запросы, завершившиеся ошибкой",
+                        statementStatistics.getErrors())
+                .counter("dreamjob_db_slow_statements_total", "Запросы дольше порога медленного запроса",
+                        statementStatistics.getSlowStatements())
+                .gauge("dreamjob_db_statement_shapes", "Различные виды SQL-запросов", statementStatistics.getShapeCount());
+        for (var cache : caches) {
+            var prefix = "dreamjob_cache_" + cache.getName();
+            metrics.gauge(prefix + "_size", "Записей в кэше", cache.getSize())
+                    .counter(prefix + "_hits_total", "Чтения, обслуженные кэшем", cache.getHits())
+                    .counter(prefix + "_misses_total", "Чтения, ушедшие в базу", cache.getMisses())
+                    .counter(prefix + "_evictions_total", "Записи, вытесненные по размеру или времени жизни",
+                            cache.getEvictions());
+        }
+        fileGarbageCollector.ifPresent(collector -> metrics
+                .counter("dreamjob_file_gc_runs_total", "Завершённые проходы сборщика мусора хранилища",
+                        collector.getRuns())
+                .counter("dreamjob_file_gc_reclaimed_rows_total", "Удалённые строки files без ссылок",
+                        collector.getReclaimedRows())
+                .counter("dreamjob_file_gc_reclaimed_blobs_total", "Удалённые файлы без строки files",
+                        collector.getReclaimedBlobs())
+                .counter("dreamjob_file_gc_reclaimed_bytes_total", "Байты, освобождённые сборщиком мусора",
+                        collector.getReclaimedBytes())
+                .gauge("dreamjob_file_gc_last_run_duration_seconds", "Длительность последнего прохода сборщика",
+                        collector.getLastRunMillis() / 1000.0));
+        metricsRegistry.writeTo(metrics);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, PrometheusFormat.CONTENT_TYPE)
+                .body(metrics.toString());
+    }
+
+    /* Самые тяжёлые виды запросов: sort=total (суммарное время), max, count или rows */
+    @GetMapping("/metrics/statements")
+    public ResponseEntity<String> getTopStatements(@RequestParam(defaultValue = "20") int top,
+                                                   @RequestParam(defaultValue = "total") String sort) {
+        var order = switch (sort) {
+            case "max" -> StatementStatistics.Shape.BY_MAX_TIME;
+            case "count" -> StatementStatistics.Shape.BY_COUNT;
+            case "rows" -> StatementStatistics.Shape.BY_ROWS;
+            default -> StatementStatistics.Shape.BY_TOTAL_TIME;
+        };
+        var out = new StringBuilder(String.format("%9s %12s %10s %10s %10s %7s  %s%n",
+                "count", "total ms", "mean ms", "max ms", "rows", "errors", "sql"));
+        for (var shape : statementStatistics.getTop(Math.max(1, top), order)) {
+            out.append(String.format("%9d %12.1f %10.2f %10.2f %10d %7d  %s%n", shape.getCount(),
+                    millis(shape.getTotalNanos()), millis(shape.getTotalNanos()) / Math.max(1, shape.getCount()),
+                    millis(shape.getMaxNanos()), shape.getRows(), shape.getErrors(), shape.getSql()));
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, "text/plain; charset=utf-8")
+                .body(out.toString());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
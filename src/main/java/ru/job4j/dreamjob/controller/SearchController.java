@@ -0,0 +1,39 @@
+package ru.job4j.dreamjob.controller;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.service.SearchService;
+
+@Controller
+@RequestMapping("/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /* scope=candidates ищет по резюме, любое другое значение - по вакансиям */
+    @GetMapping
+    public String search(Model model,
+                         @RequestParam(defaultValue = "") String q,
+                         @RequestParam(defaultValue = "vacancies") String scope,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "" + Page.DEFAULT_SIZE) int size) {
+        var candidates = "candidates".equals(scope);
+        var page = candidates
+                ? searchService.searchCandidates(q, cursor, size)
+                : searchService.searchVacancies(q, cursor, size);
+        model.addAttribute("hits", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("q", q);
+        model.addAttribute("scope", candidates ? "candidates" : "vacancies");
+        return "search/list";
+    }
+}
@@ -1,5 +1,7 @@
 package ru.job4j.dreamjob.controller;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import ru.job4j.dreamjob.model.User;
@@ -7,14 +9,21 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import ru.job4j.dreamjob.service.PasswordHasherBusyException;
 import ru.job4j.dreamjob.service.UserService;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/users")
 public class UserController {
+
+    /* через сколько секунд предлагать повторить вход, когда пул проверки паролей перегружен */
+    private static final String RETRY_AFTER_SECONDS = "1";
+
     private final UserService userService;
 
     public UserController(UserService userService) {
@@ -28,8 +37,16 @@ public class UserController {
 
     @PostMapping("/register")
     public String register(@ModelAttribute User user,
-                           Model model) {
-        var savedUser = userService.save(user);
+                           Model model,
+                           HttpServletResponse response) {
+        Optional<User> savedUser;
+        try {
+            savedUser = userService.save(user);
+        } catch (PasswordHasherBusyException e) {
+            tooManyRequests(response);
+            model.addAttribute("message", "Сервер перегружен, повторите регистрацию через несколько секунд");
+            return "errors/404";
+        }
         if (savedUser.isEmpty()) {
             model.addAttribute("message", "Пользователь с таким email уже существует");
             return "errors/404";
@@ -46,10 +63,16 @@ public class UserController {
     public String loginUser(@ModelAttribute User user, /* @ModelAttribute позволяет автоматически связывать
     значения полей объектов модели с элементами формы */
                             Model model,
-                            HttpServletRequest request) {
-        var userOptional = userService.findByEmailAndPassword(
-                user.getEmail(), user.getPassword()
-        );
+                            HttpServletRequest request,
+                            HttpServletResponse response) {
+        Optional<User> userOptional;
+        try {
+            userOptional = userService.findByEmailAndPassword(user.getEmail(), user.getPassword());
+        } catch (PasswordHasherBusyException e) {
+            tooManyRequests(response);
+            model.addAttribute("error", "Сервер перегружен, повторите вход через несколько секунд");
+            return "users/login";
+        }
         if (userOptional.isEmpty()) {
             model.addAttribute("error", "Почта или пароль введены неверно");
             return "users/login";
@@ -63,6 +86,11 @@ public class UserController {
         return "redirect:/vacancies";
     }
 
+    private void tooManyRequests(HttpServletResponse response) {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    }
+
     @GetMapping("/logout")
     public String logout(HttpSession httpSession) {
         httpSession.invalidate();
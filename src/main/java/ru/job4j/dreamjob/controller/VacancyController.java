@@ -5,6 +5,8 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
@@ -23,10 +25,15 @@ public class VacancyController {
     }
 
     @GetMapping
-    public String getAll(Model model) {
-
-        model.addAttribute("vacancies",
-                vacancyService.findAll());
+    public String getAll(Model model,
+                         @ModelAttribute("filter") ListFilter filter,
+                         @RequestParam(required = false) String cursor,
+                         @RequestParam(defaultValue = "" + Page.DEFAULT_SIZE) int size) {
+        var page = vacancyService.findPage(cursor, filter, size);
+        model.addAttribute("vacancies", page.getItems());
+        model.addAttribute("page", page);
+        model.addAttribute("cursor", cursor);
+        model.addAttribute("cities", cityService.findAll());
         return "vacancies/list";
     }
 
@@ -44,7 +51,7 @@ public class VacancyController {
         try {
             vacancyService.save(vacancy,
                     new FileDto(file.getOriginalFilename(),
-                    file.getBytes()));
+                    file.getSize(), file));
             return "redirect:/vacancies";
         } catch (Exception e) {
             model.addAttribute("message", e.getMessage());
@@ -74,7 +81,7 @@ public class VacancyController {
         try {
             var isUpdated = vacancyService.update(vacancy,
                     new FileDto(file.getOriginalFilename(),
-                    file.getBytes()));
+                    file.getSize(), file));
             if (!isUpdated) {
                 model.addAttribute("message",
                         "Вакансия с указанным идентификатором не найдена");
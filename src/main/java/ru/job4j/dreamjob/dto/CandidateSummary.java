@@ -0,0 +1,75 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/* Кандидат в списке: только то, что показывает candidates/list.html, без описания, но с названием города */
+public class CandidateSummary {
+
+    private int id;
+
+    private String name;
+
+    private LocalDateTime creationDate;
+
+    private String cityName;
+
+    public CandidateSummary() {
+    }
+
+    public CandidateSummary(int id, String name, LocalDateTime creationDate, String cityName) {
+        this.id = id;
+        this.name = name;
+        this.creationDate = creationDate;
+        this.cityName = cityName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public String getCityName() {
+        return cityName;
+    }
+
+    public void setCityName(String cityName) {
+        this.cityName = cityName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        CandidateSummary that = (CandidateSummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
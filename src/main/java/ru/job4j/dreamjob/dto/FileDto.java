@@ -1,16 +1,27 @@
 package ru.job4j.dreamjob.dto;
 
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+
 public class FileDto {
 
     private String name;
 
-    private byte[] content; /*тут кроется различие. доменная модель хранит путь, а не содержимое*/
+    private long size;
 
-    public FileDto(String name, byte[] content) {
+    private InputStreamSource content; /*тут кроется различие. доменная модель хранит путь, а не содержимое;
+    само содержимое здесь не лежит в памяти, а читается потоком при сохранении*/
+
+    public FileDto(String name, long size, InputStreamSource content) {
         this.name = name;
+        this.size = size;
         this.content = content;
     }
 
+    public FileDto(String name, byte[] content) {
+        this(name, content.length, new ByteArrayResource(content));
+    }
+
     public String getName() {
         return name;
     }
@@ -19,11 +30,19 @@ public class FileDto {
         this.name = name;
     }
 
-    public byte[] getContent() {
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public InputStreamSource getContent() {
         return content;
     }
 
-    public void setContent(byte[] content) {
+    public void setContent(InputStreamSource content) {
         this.content = content;
     }
-}
\ No newline at end of file
+}
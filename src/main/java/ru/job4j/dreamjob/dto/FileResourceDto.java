@@ -0,0 +1,70 @@
+package ru.job4j.dreamjob.dto;
+
+import org.springframework.core.io.Resource;
+
+import java.time.LocalDateTime;
+
+public class FileResourceDto {
+
+    private String name;
+
+    private Resource content; /* содержимое не читается в память, а отдаётся потоком прямо с диска */
+
+    private String hash;
+
+    private LocalDateTime lastModified;
+
+    private boolean cacheable = true; /* false - временная замена, например оригинал вместо ещё не готовой миниатюры */
+
+    public FileResourceDto(String name, Resource content) {
+        this.name = name;
+        this.content = content;
+    }
+
+    public FileResourceDto(String name, Resource content, String hash, LocalDateTime lastModified) {
+        this.name = name;
+        this.content = content;
+        this.hash = hash;
+        this.lastModified = lastModified;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Resource getContent() {
+        return content;
+    }
+
+    public void setContent(Resource content) {
+        this.content = content;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public void setLastModified(LocalDateTime lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    public boolean isCacheable() {
+        return cacheable;
+    }
+
+    public void setCacheable(boolean cacheable) {
+        this.cacheable = cacheable;
+    }
+}
@@ -0,0 +1,81 @@
+package ru.job4j.dreamjob.dto;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/* Фильтр списков вакансий и резюме из параметров запроса; незаполненное поле не ограничивает список.
+Даты включаются целиком: createdBefore=2024-01-31 оставляет записи, созданные 31 января.
+visible есть только у вакансий, для резюме он не учитывается */
+public class ListFilter {
+
+    private Integer cityId;
+
+    private Boolean visible;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdAfter;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate createdBefore;
+
+    public ListFilter() {
+    }
+
+    public ListFilter(Integer cityId, Boolean visible, LocalDate createdAfter, LocalDate createdBefore) {
+        this.cityId = cityId;
+        this.visible = visible;
+        this.createdAfter = createdAfter;
+        this.createdBefore = createdBefore;
+    }
+
+    /* нижняя граница creation_date включительно, null - без границы */
+    public LocalDateTime createdFrom() {
+        return createdAfter == null ? null : createdAfter.atStartOfDay();
+    }
+
+    /* верхняя граница creation_date не включительно, null - без границы */
+    public LocalDateTime createdUntil() {
+        return createdBefore == null ? null : createdBefore.plusDays(1).atStartOfDay();
+    }
+
+    public boolean matches(int cityId, Boolean visible, LocalDateTime creationDate) {
+        return (this.cityId == null || this.cityId == cityId)
+                && (this.visible == null || visible == null || this.visible.equals(visible))
+                && (createdAfter == null || !creationDate.isBefore(createdFrom()))
+                && (createdBefore == null || creationDate.isBefore(createdUntil()));
+    }
+
+    public Integer getCityId() {
+        return cityId;
+    }
+
+    public void setCityId(Integer cityId) {
+        this.cityId = cityId;
+    }
+
+    public Boolean getVisible() {
+        return visible;
+    }
+
+    public void setVisible(Boolean visible) {
+        this.visible = visible;
+    }
+
+    public LocalDate getCreatedAfter() {
+        return createdAfter;
+    }
+
+    public void setCreatedAfter(LocalDate createdAfter) {
+        this.createdAfter = createdAfter;
+    }
+
+    public LocalDate getCreatedBefore() {
+        return createdBefore;
+    }
+
+    public void setCreatedBefore(LocalDate createdBefore) {
+        this.createdBefore = createdBefore;
+    }
+}
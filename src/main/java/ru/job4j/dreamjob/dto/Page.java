@@ -0,0 +1,74 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class Page<T> {
+
+    public static final int DEFAULT_SIZE = 20;
+
+    public static final int MAX_SIZE = 100;
+
+    /* страницы по смещению (результаты поиска) не листают дальше первых десяти тысяч записей */
+    public static final int MAX_OFFSET = 10_000;
+
+    private final List<T> items;
+
+    private final int size;
+
+    private final String nextCursor; /* null на последней странице */
+
+    public Page(List<T> items, int size, String nextCursor) {
+        this.items = items;
+        this.size = size;
+        this.nextCursor = nextCursor;
+    }
+
+    /* из репозитория запрашивается на одну запись больше размера страницы:
+    если она пришла, то есть следующая страница, и курсор указывает на последнюю показанную запись */
+    public static <T> Page<T> of(List<T> fetched, int size, Function<T, PageCursor> cursorOf) {
+        if (fetched.size() <= size) {
+            return new Page<>(fetched, size, null);
+        }
+        var items = fetched.subList(0, size);
+        return new Page<>(items, size, cursorOf.apply(items.get(size - 1)).toString());
+    }
+
+    /* то же для страниц по смещению: курсор следующей страницы - смещение её первой записи */
+    public static <T> Page<T> atOffset(List<T> fetched, int size, int offset) {
+        if (fetched.size() <= size) {
+            return new Page<>(fetched, size, null);
+        }
+        return new Page<>(fetched.subList(0, size), size, String.valueOf(offset + size));
+    }
+
+    /* неверный курсор из ссылки открывает первую страницу */
+    public static int parseOffset(String cursor) {
+        try {
+            return cursor == null ? 0 : Math.max(0, Math.min(Integer.parseInt(cursor), MAX_OFFSET));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /* размер страницы от клиента ограничивается, чтобы один запрос не мог выгрузить всю таблицу */
+    public static int limitSize(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/* Позиция в списке, отсортированном по (creation_date, id) от новых к старым:
+следующая страница начинается сразу после этой пары. В ссылке записывается как 2024-01-31T12:00_42 */
+public record PageCursor(LocalDateTime creationDate, int id) {
+
+    private static final String SEPARATOR = "_";
+
+    public static Optional<PageCursor> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        var separator = value.lastIndexOf(SEPARATOR);
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new PageCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Integer.parseInt(value.substring(separator + 1))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return creationDate + SEPARATOR + id;
+    }
+}
@@ -0,0 +1,63 @@
+package ru.job4j.dreamjob.dto;
+
+import java.util.Objects;
+
+/* Найденная вакансия или резюме: id для ссылки, заголовок для показа и релевантность */
+public class SearchHit {
+
+    private int id;
+
+    private String title;
+
+    private double score;
+
+    public SearchHit() {
+    }
+
+    public SearchHit(int id, String title, double score) {
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SearchHit that = (SearchHit) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.job4j.dreamjob.dto;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/* Вакансия в списке: только то, что показывает vacancies/list.html, без описания, но с названием города */
+public class VacancySummary {
+
+    private int id;
+
+    private String title;
+
+    private LocalDateTime creationDate;
+
+    private boolean visible;
+
+    private String cityName;
+
+    public VacancySummary() {
+    }
+
+    public VacancySummary(int id, String title, LocalDateTime creationDate, boolean visible, String cityName) {
+        this.id = id;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.visible = visible;
+        this.cityName = cityName;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
+    public boolean getVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+
+    public String getCityName() {
+        return cityName;
+    }
+
+    public void setCityName(String cityName) {
+        this.cityName = cityName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        VacancySummary that = (VacancySummary) o;
+        return id == that.id;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
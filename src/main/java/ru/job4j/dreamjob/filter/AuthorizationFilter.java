@@ -1,7 +1,11 @@
 package ru.job4j.dreamjob.filter;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
@@ -9,24 +13,55 @@ import javax.servlet.http.HttpFilter;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Set;
 
 @Component
 @Order(1) /* (1) указывает, что этот фильтр должен выполниться до SessionFilter; */
 public class AuthorizationFilter extends HttpFilter {
 
+    private static final UrlPathHelper PATHS = new UrlPathHelper();
+
+    private final Set<String> metricsAddresses;
+
+    private final byte[] metricsToken;
+
+    public AuthorizationFilter(
+            @Value("${metrics.allowed-addresses:127.0.0.1,0:0:0:0:0:0:0:1}") Set<String> metricsAddresses,
+            @Value("${metrics.token:}") String metricsToken) {
+        this.metricsAddresses = metricsAddresses;
+        this.metricsToken = metricsToken.getBytes(StandardCharsets.UTF_8);
+    }
+
     @Override
     protected void doFilter(HttpServletRequest request,
                             HttpServletResponse response,
                             FilterChain chain) throws ServletException, IOException {
 
-        var uri = request.getRequestURI();
+        /* путь без ;параметров и с раскодированными %xx, как его сопоставит Spring: иначе /metrics;x
+        не узнавался бы здесь, а контроллер всё равно отдал бы метрики */
+        var uri = PATHS.getPathWithinApplication(request);
+
+        /* метрики читает сборщик без сессии, поэтому вход для них не подходит:
+        доступ только с разрешённых адресов или с токеном, остальным 403 */
+        if (isMetrics(uri)) {
+            if (isMetricsAccessAllowed(request)) {
+                chain.doFilter(request, response);
+            } else {
+                response.sendError(HttpStatus.FORBIDDEN.value());
+            }
+            return;
+        }
 
         if (isAlwaysPermitted(uri)) {
             chain.doFilter(request, response);
             return;
         }
 
-        var userLoggedIn = request.getSession().getAttribute("user") != null;
+        /* getSession(false) не создаёт сессию анониму, которого всё равно отправят на страницу входа */
+        var session = request.getSession(false);
+        var userLoggedIn = session != null && session.getAttribute("user") != null;
 
         if (!userLoggedIn) {
             var loginPageUrl = request.getContextPath() + "/users/login";
@@ -39,7 +74,23 @@ public class AuthorizationFilter extends HttpFilter {
     private boolean isAlwaysPermitted(String uri) {
         return uri.startsWith("/users/register")
                 || uri.startsWith("/users/login")
-                || uri.startsWith("/js")
-                || uri.startsWith("/css");
+                || SessionFilter.isStaticResource(uri);
+    }
+
+    private boolean isMetrics(String uri) {
+        return uri.equals("/metrics") || uri.startsWith("/metrics/");
+    }
+
+    /* токен сравнивается за постоянное время; пустой metrics.token отключает доступ по токену */
+    private boolean isMetricsAccessAllowed(HttpServletRequest request) {
+        if (metricsAddresses.contains(request.getRemoteAddr())) {
+            return true;
+        }
+        var authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (metricsToken.length == 0 || authorization == null || !authorization.startsWith("Bearer ")) {
+            return false;
+        }
+        return MessageDigest.isEqual(metricsToken,
+                authorization.substring("Bearer ".length()).getBytes(StandardCharsets.UTF_8));
     }
 }
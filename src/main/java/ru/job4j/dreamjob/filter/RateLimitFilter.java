@@ -0,0 +1,77 @@
+package ru.job4j.dreamjob.filter;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpFilter;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/* Ограничение частоты входа и регистрации до того, как запрос дойдёт до базы и проверки пароля:
+отдельные корзины на IP-адрес и на email из формы. Перебор паролей с одного адреса упирается в первую,
+перебор одной учётки с многих адресов - во вторую. Лишний запрос получает 429 и Retry-After в секундах */
+@Component
+@Order(0)
+public class RateLimitFilter extends HttpFilter {
+
+    private static final UrlPathHelper PATHS = new UrlPathHelper();
+
+    private final boolean enabled;
+
+    private final TokenBucketTable byAddress;
+
+    private final TokenBucketTable byEmail;
+
+    public RateLimitFilter(@Value("${ratelimit.enabled:true}") boolean enabled,
+                           @Value("${ratelimit.table-size:65536}") int tableSize,
+                           @Value("${ratelimit.ip.burst:20}") int addressBurst,
+                           @Value("${ratelimit.ip.refill:PT3S}") Duration addressRefill,
+                           @Value("${ratelimit.email.burst:5}") int emailBurst,
+                           @Value("${ratelimit.email.refill:PT12S}") Duration emailRefill) {
+        this.enabled = enabled;
+        this.byAddress = new TokenBucketTable(tableSize, addressBurst, addressRefill, System::currentTimeMillis);
+        this.byEmail = new TokenBucketTable(tableSize, emailBurst, emailRefill, System::currentTimeMillis);
+    }
+
+    @Override
+    protected void doFilter(HttpServletRequest request,
+                            HttpServletResponse response,
+                            FilterChain chain) throws ServletException, IOException {
+        if (enabled && isLimited(request)) {
+            var wait = byAddress.tryAcquire(request.getRemoteAddr());
+            var email = request.getParameter("email");
+            if (wait == 0 && email != null && !email.isBlank()) {
+                wait = byEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            }
+            if (wait > 0) {
+                tooManyRequests(response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /* путь сравнивается после нормализации, как его увидит Spring: без ;параметров и с раскодированными %xx,
+    иначе /users/login;x=1 дошёл бы до loginUser в обход ограничения */
+    private boolean isLimited(HttpServletRequest request) {
+        var uri = PATHS.getPathWithinApplication(request);
+        return "POST".equals(request.getMethod())
+                && (uri.equals("/users/login") || uri.equals("/users/register"));
+    }
+
+    private void tooManyRequests(HttpServletResponse response, long waitMillis) throws IOException {
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((waitMillis + 999) / 1000));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Слишком много попыток, повторите позже");
+    }
+}
@@ -12,28 +12,37 @@ import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
 
+/* Кладёт в запрос текущего пользователя для шаблонов. Сессия только читается: getSession(false)
+не создаёт её анонимному посетителю, а все анонимы получают один и тот же объект гостя.
+Так поток запросов от поисковых роботов не заполняет Tomcat пустыми сессиями и не раздаёт им куки.
+Сессия создаётся только при входе в UserController.loginUser */
 @Component
 @Order(2)
 public class SessionFilter extends HttpFilter {
 
+    /* общий для всех запросов, поэтому его нельзя изменять */
+    private static final User GUEST = new User(0, null, "Гость", null);
+
     @Override
     protected void doFilter(HttpServletRequest request,
                             HttpServletResponse response,
                             FilterChain chain) throws ServletException, IOException {
 
-        var session = request.getSession();
-        addUserToSession(session, request);
+        if (!isStaticResource(request.getRequestURI())) {
+            addUserToRequest(request.getSession(false), request);
+        }
         chain.doFilter(request, response);
     }
 
-    protected void addUserToSession(HttpSession session,
+    protected void addUserToRequest(HttpSession session,
                                     HttpServletRequest request) {
 
-        var user = (User) session.getAttribute("user");
-        if (user == null) {
-            user = new User();
-            user.setName("Гость");
-        }
-        request.setAttribute("user", user);
+        var user = session == null ? null : (User) session.getAttribute("user");
+        request.setAttribute("user", user == null ? GUEST : user);
+    }
+
+    /* статике пользователь не нужен, и сессию она не трогает */
+    static boolean isStaticResource(String uri) {
+        return uri.startsWith("/css/") || uri.startsWith("/js/") || uri.equals("/favicon.ico");
     }
 }
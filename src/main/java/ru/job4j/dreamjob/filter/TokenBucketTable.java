@@ -0,0 +1,121 @@
+package ru.job4j.dreamjob.filter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/* Таблица token bucket фиксированного размера без блокировок: ключ (IP, email) хэшируется в 64 бита
+и ищется среди PROBES соседних ячеек. Состояние корзины - одно long: время последнего пополнения в мс
+и число токенов в тысячных долях, поэтому списание токена - один compareAndSet, а отказ ничего не пишет
+и не создаёт конкуренции за кэш-линию при переборе паролей.
+Память ограничена размером таблицы при любом числе разных ключей: корзина, простоявшая дольше полного
+пополнения, неотличима от новой, и её ячейку занимает следующий ключ. Если свободных ячеек рядом нет,
+вытесняется самая давно пополнявшаяся из них, а новый ключ наследует её неполную корзину -
+это строже, а не мягче, чем пустая таблица */
+public class TokenBucketTable {
+
+    private static final int PROBES = 8;
+
+    private static final long TOKEN = 1000;
+
+    private static final int TOKEN_BITS = 24;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    private final AtomicLongArray keys;
+
+    private final AtomicLongArray states;
+
+    private final int mask;
+
+    private final long capacity;
+
+    private final long refillMillis;
+
+    private final long idleMillis;
+
+    private final LongSupplier clock;
+
+    /* начало отсчёта выбрано так, чтобы пустая ячейка с нулевым состоянием уже была полностью пополнена */
+    private final long start;
+
+    public TokenBucketTable(int size, int burst, Duration refill, LongSupplier clock) {
+        if (burst <= 0 || burst * TOKEN > TOKEN_MASK) {
+            throw new IllegalArgumentException("burst должен быть от 1 до " + TOKEN_MASK / TOKEN);
+        }
+        var slots = Integer.highestOneBit(Math.max(PROBES, size - 1) << 1);
+        this.keys = new AtomicLongArray(slots);
+        this.states = new AtomicLongArray(slots);
+        this.mask = slots - 1;
+        this.capacity = burst * TOKEN;
+        this.refillMillis = Math.max(1, refill.toMillis());
+        this.idleMillis = refillMillis * burst;
+        this.clock = clock;
+        this.start = clock.getAsLong() - idleMillis;
+    }
+
+    /* 0 - токен списан; иначе через сколько миллисекунд появится следующий токен */
+    public long tryAcquire(String key) {
+        var hash = hash(key);
+        var slot = find(hash);
+        while (true) {
+            var state = states.get(slot);
+            var now = clock.getAsLong() - start;
+            var tokens = available(state, now);
+            if (tokens < TOKEN) {
+                return (TOKEN - tokens) * refillMillis / TOKEN + 1;
+            }
+            if (states.compareAndSet(slot, state, now << TOKEN_BITS | (tokens - TOKEN))) {
+                return 0;
+            }
+        }
+    }
+
+    private long available(long state, long now) {
+        var elapsed = Math.max(0, now - (state >>> TOKEN_BITS));
+        return Math.min(capacity, (state & TOKEN_MASK) + elapsed * TOKEN / refillMillis);
+    }
+
+    /* ячейка ключа: уже занятая им, иначе свободная или простоявшая дольше полного пополнения,
+    иначе самая давно пополнявшаяся из соседних */
+    private int find(long hash) {
+        while (true) {
+            var first = (int) hash & mask;
+            var victim = -1;
+            var victimKey = 0L;
+            var victimTime = Long.MAX_VALUE;
+            for (int i = 0; i < PROBES; i++) {
+                var slot = (first + i) & mask;
+                var key = keys.get(slot);
+                if (key == hash) {
+                    return slot;
+                }
+                var time = key == 0 ? Long.MIN_VALUE : states.get(slot) >>> TOKEN_BITS;
+                if (time < victimTime) {
+                    victim = slot;
+                    victimKey = key;
+                    victimTime = time;
+                }
+            }
+            if (keys.compareAndSet(victim, victimKey, hash)) {
+                return victim;
+            }
+        }
+    }
+
+    public int size() {
+        return keys.length();
+    }
+
+    /* FNV-1a по символам и перемешивание битов; 0 занят под пустую ячейку */
+    private static long hash(String key) {
+        var hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == 0 ? 1 : hash;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/* Замеряет обработчики MVC от выбора метода контроллера до конца отрисовки ответа.
+Метка handler - КлассКонтроллера.метод, а не путь запроса, чтобы /vacancies/{id} не давал ряд на каждый id */
+public class HandlerTimingInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = HandlerTimingInterceptor.class.getName() + ".start";
+
+    private final MetricsRegistry registry;
+
+    public HandlerTimingInterceptor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    /* необработанное исключение ещё не превратилось в статус ответа, поэтому такой запрос считается как 500 */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)) {
+            return;
+        }
+        var status = ex != null ? 500 : response.getStatus();
+        registry.getHttpRequests().labels(getHandlerName(handler), String.valueOf(status))
+                .record(System.nanoTime() - start);
+    }
+
+    static String getHandlerName(Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,33 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/* Пул соединений, который замеряет, сколько поток ждал соединение из пула,
+и отдаёт текущее состояние пула для метрик */
+public class InstrumentedDataSource extends BasicDataSource {
+
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        var start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            connectionWait.record(System.nanoTime() - start);
+        }
+    }
+
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    /* потоки, которые прямо сейчас ждут свободное соединение; до первого соединения пула ещё нет */
+    public int getNumWaiters() {
+        var pool = getConnectionPool();
+        return pool == null ? 0 : pool.getNumWaiters();
+    }
+}
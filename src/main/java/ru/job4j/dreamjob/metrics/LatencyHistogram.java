@@ -0,0 +1,61 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Гистограмма длительностей с корзинами по степеням двойки микросекунд: 1 мкс, 2 мкс, ... ~35 мин.
+Значения длиннее последней границы попадают только в общий счётчик, то есть в корзину +Inf.
+Запись - это один LongAdder.increment без блокировок, поэтому её можно вызывать на каждом запросе */
+public class LatencyHistogram {
+
+    private static final int BUCKETS = 32;
+
+    /* последняя ячейка - значения длиннее последней границы */
+    private final LongAdder[] counts = new LongAdder[BUCKETS + 1];
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        var micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+        var bucket = Math.min(BUCKETS, 64 - Long.numberOfLeadingZeros(micros - 1));
+        counts[bucket].increment();
+        count.increment();
+        sumNanos.add(nanos);
+    }
+
+    public int getBucketCount() {
+        return BUCKETS;
+    }
+
+    /* верхняя граница корзины в секундах */
+    public double getUpperBoundSeconds(int bucket) {
+        return (1L << bucket) / 1_000_000.0;
+    }
+
+    /* накопленное число значений не больше верхней границы корзины, как у бакетов Prometheus */
+    public long[] getCumulativeCounts() {
+        var result = new long[BUCKETS];
+        var total = 0L;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts[i].sum();
+            result[i] = total;
+        }
+        return result;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public double getSumSeconds() {
+        return sumNanos.sum() / 1_000_000_000.0;
+    }
+}
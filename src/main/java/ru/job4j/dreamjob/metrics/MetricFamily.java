@@ -0,0 +1,55 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/* Семейство метрик с метками: одно имя и по ряду на каждое сочетание значений меток.
+Ряд создаётся при первом обращении, дальше запись идёт в уже созданный счётчик без блокировок.
+Значения меток должны браться из ограниченного набора (имена классов, методов, статусы), а не из данных запроса */
+public class MetricFamily<T> {
+
+    private final String name;
+
+    private final String help;
+
+    private final List<String> labelNames;
+
+    private final Supplier<T> factory;
+
+    private final ConcurrentMap<List<String>, T> series = new ConcurrentHashMap<>();
+
+    public MetricFamily(String name, String help, Supplier<T> factory, String... labelNames) {
+        this.name = name;
+        this.help = help;
+        this.factory = factory;
+        this.labelNames = List.of(labelNames);
+    }
+
+    public T labels(String... values) {
+        if (values.length != labelNames.size()) {
+            throw new IllegalArgumentException("Метрика " + name + " ожидает метки " + labelNames);
+        }
+        var key = List.of(values);
+        var existing = series.get(key);
+        return existing != null ? existing : series.computeIfAbsent(key, k -> factory.get());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    public List<String> getLabelNames() {
+        return labelNames;
+    }
+
+    public Map<List<String>, T> getSeries() {
+        return series;
+    }
+}
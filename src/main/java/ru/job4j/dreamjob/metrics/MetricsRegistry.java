@@ -0,0 +1,55 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/* Длительности обработчиков MVC, методов репозиториев и операций с файлами хранилища */
+public class MetricsRegistry {
+
+    private final MetricFamily<LatencyHistogram> httpRequests = new MetricFamily<>(
+            "dreamjob_http_request_duration_seconds", "Время обработки запроса вместе с отрисовкой ответа",
+            LatencyHistogram::new, "handler", "status");
+
+    private final MetricFamily<LatencyHistogram> repositoryCalls = new MetricFamily<>(
+            "dreamjob_repository_call_duration_seconds", "Время вызова метода репозитория",
+            LatencyHistogram::new, "repository", "method");
+
+    private final MetricFamily<LongAdder> repositoryErrors = new MetricFamily<>(
+            "dreamjob_repository_errors_total", "Вызовы репозитория, завершившиеся исключением",
+            LongAdder::new, "repository", "method");
+
+    private final MetricFamily<LatencyHistogram> fileIo = new MetricFamily<>(
+            "dreamjob_file_io_duration_seconds", "Время операций с файлами хранилища",
+            LatencyHistogram::new, "operation");
+
+    private final MetricFamily<LongAdder> fileIoBytes = new MetricFamily<>(
+            "dreamjob_file_io_bytes_total", "Байты, записанные в хранилище и прочитанные из него",
+            LongAdder::new, "operation");
+
+    public MetricFamily<LatencyHistogram> getHttpRequests() {
+        return httpRequests;
+    }
+
+    public MetricFamily<LatencyHistogram> getRepositoryCalls() {
+        return repositoryCalls;
+    }
+
+    public MetricFamily<LongAdder> getRepositoryErrors() {
+        return repositoryErrors;
+    }
+
+    public MetricFamily<LatencyHistogram> getFileIo() {
+        return fileIo;
+    }
+
+    public MetricFamily<LongAdder> getFileIoBytes() {
+        return fileIoBytes;
+    }
+
+    public void writeTo(PrometheusFormat format) {
+        format.histogram(httpRequests)
+                .histogram(repositoryCalls)
+                .counter(repositoryErrors)
+                .histogram(fileIo)
+                .counter(fileIoBytes);
+    }
+}
@@ -0,0 +1,104 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Запись метрик в текстовом формате Prometheus (text/plain; version=0.0.4) */
+public class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final StringBuilder out = new StringBuilder();
+
+    public PrometheusFormat gauge(String name, String help, double value) {
+        header(name, help, "gauge");
+        out.append(name).append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    public PrometheusFormat counter(String name, String help, double value) {
+        header(name, help, "counter");
+        out.append(name).append(' ').append(format(value)).append('\n');
+        return this;
+    }
+
+    /* выводятся все корзины, даже пустые: набор рядов le не должен меняться между опросами,
+    иначе rate() по корзинам и histogram_quantile() считают неверно */
+    public PrometheusFormat histogram(String name, String help, LatencyHistogram histogram) {
+        header(name, help, "histogram");
+        histogramSeries(name, "", histogram);
+        return this;
+    }
+
+    /* ряды выводятся в порядке значений меток, чтобы вывод не менялся между запросами */
+    public PrometheusFormat histogram(MetricFamily<LatencyHistogram> family) {
+        header(family.getName(), family.getHelp(), "histogram");
+        for (var series : sorted(family)) {
+            histogramSeries(family.getName(), labels(family.getLabelNames(), series.getKey()), series.getValue());
+        }
+        return this;
+    }
+
+    public PrometheusFormat counter(MetricFamily<LongAdder> family) {
+        header(family.getName(), family.getHelp(), "counter");
+        for (var series : sorted(family)) {
+            out.append(family.getName()).append('{').append(labels(family.getLabelNames(), series.getKey()))
+                    .append("} ").append(series.getValue().sum()).append('\n');
+        }
+        return this;
+    }
+
+    private void histogramSeries(String name, String labels, LatencyHistogram histogram) {
+        var bucketPrefix = labels.isEmpty() ? "{le=\"" : "{" + labels + ",le=\"";
+        var cumulative = histogram.getCumulativeCounts();
+        for (int i = 0; i < cumulative.length; i++) {
+            out.append(name).append("_bucket").append(bucketPrefix)
+                    .append(format(histogram.getUpperBoundSeconds(i))).append("\"} ").append(cumulative[i])
+                    .append('\n');
+        }
+        var selector = labels.isEmpty() ? " " : "{" + labels + "} ";
+        out.append(name).append("_bucket").append(bucketPrefix).append("+Inf\"} ").append(histogram.getCount())
+                .append('\n');
+        out.append(name).append("_sum").append(selector).append(format(histogram.getSumSeconds())).append('\n');
+        out.append(name).append("_count").append(selector).append(histogram.getCount()).append('\n');
+    }
+
+    private <T> List<Map.Entry<List<String>, T>> sorted(MetricFamily<T> family) {
+        return family.getSeries().entrySet().stream()
+                .sorted(Comparator.comparing(entry -> String.join("\u0000", entry.getKey())))
+                .toList();
+    }
+
+    private String labels(List<String> names, List<String> values) {
+        var result = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                result.append(',');
+            }
+            result.append(names.get(i)).append("=\"").append(escape(values.get(i))).append('"');
+        }
+        return result.toString();
+    }
+
+    /* в значениях меток экранируются обратная косая черта, кавычка и перевод строки */
+    private String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private void header(String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private String format(double value) {
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    @Override
+    public String toString() {
+        return out.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/* Оборачивает каждый бин @Repository в прокси, который замеряет вызовы его методов и считает исключения.
+Прокси - подкласс репозитория, а не реализация интерфейса: бины по-прежнему можно получать по классу.
+Вызовы репозитория самого себя идут мимо прокси и отдельно не замеряются */
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+
+    private final MetricsRegistry registry;
+
+    public RepositoryTimingPostProcessor(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (AnnotationUtils.findAnnotation(bean.getClass(), Repository.class) == null) {
+            return bean;
+        }
+        var factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvice(new TimingInterceptor(bean.getClass().getSimpleName()));
+        return factory.getProxy(bean.getClass().getClassLoader());
+    }
+
+    /* ряды метрик ищутся по Method один раз, дальше вызов стоит два System.nanoTime и запись в гистограмму */
+    private class TimingInterceptor implements MethodInterceptor {
+
+        private final String repository;
+
+        private final Map<Method, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+
+        TimingInterceptor(String repository) {
+            this.repository = repository;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            var method = invocation.getMethod();
+            if (method.getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            var histogram = histograms.computeIfAbsent(method,
+                    m -> registry.getRepositoryCalls().labels(repository, m.getName()));
+            var start = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                registry.getRepositoryErrors().labels(repository, method.getName()).increment();
+                throw e;
+            } finally {
+                histogram.record(System.nanoTime() - start);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/* Статистика SQL-запросов по их виду: текст запроса с ? вместо значений, как его подготовил Sql2o.
+По каждому виду копятся число выполнений, суммарное и максимальное время и число строк.
+Запросы дольше порога пишутся в лог с типами параметров, но без самих значений */
+public class StatementStatistics {
+
+    /* сюда попадают запросы сверх max-shapes, чтобы случайный динамический SQL не раздул память */
+    public static final String OTHER_SHAPE = "<прочие запросы>";
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementStatistics.class.getName());
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /* Sql2o разворачивает IN (:ids) в столько ?, сколько значений в списке; все длины считаются одним видом */
+    private static final Pattern PARAMETER_LIST = Pattern.compile(
+            "\\bIN\\s*\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private final long slowThresholdNanos;
+
+    private final int maxShapes;
+
+    private final ConcurrentMap<String, Shape> shapes = new ConcurrentHashMap<>();
+
+    private final LatencyHistogram duration = new LatencyHistogram();
+
+    private final LongAdder slowStatements = new LongAdder();
+
+    public StatementStatistics(Duration slowThreshold, int maxShapes) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxShapes = maxShapes;
+    }
+
+    /* пул остаётся прежним, обёртка перехватывает только выданные им соединения */
+    public DataSource wrap(DataSource dataSource) {
+        return StatementTracing.wrap(dataSource, this);
+    }
+
+    /* у пакета из createStatement текста нет, он учитывается вместе с прочими */
+    static String toShape(String sql) {
+        if (sql == null) {
+            return OTHER_SHAPE;
+        }
+        return PARAMETER_LIST.matcher(WHITESPACE.matcher(sql.strip()).replaceAll(" ")).replaceAll("IN (?, ...)");
+    }
+
+    void record(String sql, long nanos, long rows, boolean failed, List<String> parameterTypes) {
+        var shape = getShape(toShape(sql));
+        shape.count.increment();
+        shape.totalNanos.add(nanos);
+        shape.maxNanos.accumulate(nanos);
+        shape.rows.add(rows);
+        if (failed) {
+            shape.errors.increment();
+        }
+        duration.record(nanos);
+        if (nanos >= slowThresholdNanos) {
+            slowStatements.increment();
+            LOG.warn("Медленный запрос: {} мс, строк {}, параметры ({}): {}",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), rows, String.join(", ", parameterTypes), shape.sql);
+        }
+    }
+
+    private Shape getShape(String sql) {
+        var shape = shapes.get(sql);
+        if (shape != null) {
+            return shape;
+        }
+        var key = shapes.size() < maxShapes ? sql : OTHER_SHAPE;
+        return shapes.computeIfAbsent(key, Shape::new);
+    }
+
+    public List<Shape> getTop(int limit, Comparator<Shape> order) {
+        return shapes.values().stream().sorted(order).limit(limit).toList();
+    }
+
+    public int getShapeCount() {
+        return shapes.size();
+    }
+
+    public LatencyHistogram getDuration() {
+        return duration;
+    }
+
+    public long getSlowStatements() {
+        return slowStatements.sum();
+    }
+
+    public long getRows() {
+        return shapes.values().stream().mapToLong(Shape::getRows).sum();
+    }
+
+    public long getErrors() {
+        return shapes.values().stream().mapToLong(Shape::getErrors).sum();
+    }
+
+    public static class Shape {
+
+        public static final Comparator<Shape> BY_TOTAL_TIME = Comparator.comparingLong(Shape::getTotalNanos).reversed();
+
+        public static final Comparator<Shape> BY_MAX_TIME = Comparator.comparingLong(Shape::getMaxNanos).reversed();
+
+        public static final Comparator<Shape> BY_COUNT = Comparator.comparingLong(Shape::getCount).reversed();
+
+        public static final Comparator<Shape> BY_ROWS = Comparator.comparingLong(Shape::getRows).reversed();
+
+        private final String sql;
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private final LongAdder rows = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        Shape(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public long getErrors() {
+            return errors.sum();
+        }
+    }
+}
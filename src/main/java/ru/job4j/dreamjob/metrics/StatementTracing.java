@@ -0,0 +1,182 @@
+package ru.job4j.dreamjob.metrics;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/* Прокси над DataSource, Connection, Statement и ResultSet для StatementStatistics.
+Время запроса - это выполнение execute* плюс время внутри ResultSet.next, то есть вместе с выборкой строк,
+но без работы маппера между вызовами next. Ошибка подготовки запроса (например, нет такой таблицы) тоже учитывается как ошибка его вида.
+Итог по выполнению записывается при следующем execute,
+закрытии ResultSet или закрытии запроса. Запрос используется одним потоком, поэтому поля без синхронизации */
+final class StatementTracing {
+
+    private StatementTracing() {
+    }
+
+    static DataSource wrap(DataSource dataSource, StatementStatistics statistics) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            var result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrap(connection, statistics) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection, StatementStatistics statistics) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            if (!Statement.class.isAssignableFrom(method.getReturnType())) {
+                return invoke(target, method, args);
+            }
+            var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            var start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(target, method, args);
+            } catch (Throwable e) {
+                statistics.record(sql, System.nanoTime() - start, 0, true, List.of());
+                throw e;
+            }
+            var statement = (Statement) result;
+            return proxy(method.getReturnType(), statement, new StatementHandler(statement, sql, statistics));
+        });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, TargetHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(StatementTracing.class.getClassLoader(), new Class<?>[] {type},
+                invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface TargetHandler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class StatementHandler implements TargetHandler {
+
+        private final Statement statement;
+
+        private final String preparedSql;
+
+        private final StatementStatistics statistics;
+
+        /* типы параметров по номеру: setInt -> int, setObject -> класс значения */
+        private final List<String> parameterTypes = new ArrayList<>();
+
+        private String executedSql;
+
+        private long nanos;
+
+        private long rows;
+
+        private boolean pending;
+
+        StatementHandler(Statement statement, String preparedSql, StatementStatistics statistics) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.statistics = statistics;
+        }
+
+        @Override
+        public Object handle(Object target, Method method, Object[] args) throws Throwable {
+            var name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name, args[1]);
+            } else if ("clearParameters".equals(name)) {
+                parameterTypes.clear();
+            } else if ("close".equals(name)) {
+                flush();
+            }
+            var result = invoke(statement, method, args);
+            return "getResultSet".equals(name) && result instanceof ResultSet resultSet ? wrap(resultSet) : result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            flush();
+            executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            var start = System.nanoTime();
+            Object result;
+            try {
+                result = invoke(statement, method, args);
+            } catch (Throwable e) {
+                statistics.record(executedSql, System.nanoTime() - start, 0, true, parameterTypes);
+                throw e;
+            }
+            nanos = System.nanoTime() - start;
+            rows = 0;
+            pending = true;
+            if (result instanceof ResultSet resultSet) {
+                return wrap(resultSet);
+            }
+            if (result instanceof Number count) {
+                rows = count.longValue();
+            } else if (result instanceof int[] counts) {
+                for (var count : counts) {
+                    rows += Math.max(0, count);
+                }
+            }
+            return result;
+        }
+
+        private ResultSet wrap(ResultSet resultSet) {
+            return proxy(ResultSet.class, resultSet, (target, method, args) -> {
+                if ("next".equals(method.getName())) {
+                    var start = System.nanoTime();
+                    try {
+                        var hasRow = (Boolean) invoke(target, method, args);
+                        if (hasRow) {
+                            rows++;
+                        }
+                        return hasRow;
+                    } finally {
+                        nanos += System.nanoTime() - start;
+                    }
+                }
+                if ("close".equals(method.getName())) {
+                    flush();
+                }
+                return invoke(target, method, args);
+            });
+        }
+
+        private void bind(int index, String setter, Object value) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            String type;
+            if ("setNull".equals(setter) || value == null) {
+                type = "null";
+            } else if ("setObject".equals(setter)) {
+                type = value.getClass().getSimpleName();
+            } else {
+                type = Character.toLowerCase(setter.charAt(3)) + setter.substring(4);
+            }
+            parameterTypes.set(index - 1, type);
+        }
+
+        private void flush() {
+            if (pending) {
+                pending = false;
+                statistics.record(executedSql, nanos, rows, false, parameterTypes);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ru.job4j.dreamjob.metrics;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/* Поток, который считает время, проведённое внутри read и skip, и прочитанные байты.
+Время между вызовами (запись в сокет клиента) не учитывается, поэтому медленный клиент не портит замер диска.
+Итог записывается один раз при закрытии */
+public class TimedInputStream extends FilterInputStream {
+
+    private final LatencyHistogram histogram;
+
+    private final LongAdder bytes;
+
+    private long nanos;
+
+    private long read;
+
+    private boolean closed;
+
+    public TimedInputStream(InputStream in, LatencyHistogram histogram, LongAdder bytes) {
+        super(in);
+        this.histogram = histogram;
+        this.bytes = bytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        var start = System.nanoTime();
+        try {
+            var value = super.read();
+            if (value >= 0) {
+                read++;
+            }
+            return value;
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        var start = System.nanoTime();
+        try {
+            var count = super.read(buffer, offset, length);
+            if (count > 0) {
+                read += count;
+            }
+            return count;
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        var start = System.nanoTime();
+        try {
+            return super.skip(n);
+        } finally {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            if (!closed) {
+                closed = true;
+                histogram.record(nanos);
+                bytes.add(read);
+            }
+        }
+    }
+}
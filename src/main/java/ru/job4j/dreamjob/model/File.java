@@ -1,20 +1,47 @@
 package ru.job4j.dreamjob.model;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.Objects;
 
 public class File {
 
+    public static final Map<String, String> COLUMN_MAPPING
+            = Map.of(
+            "id", "id",
+            "name", "name",
+            "path", "path",
+            "hash", "hash",
+            "size", "size",
+            "creation_date", "creationDate"
+    );
+
     private int id;
 
     private String name;
 
     private String path;
 
+    private String hash; /* SHA-256 содержимого; файлы не меняются на месте, поэтому это готовый ETag */
+
+    private long size;
+
+    private LocalDateTime creationDate
+            = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
     public File(String name, String path) {
         this.name = name;
         this.path = path;
     }
 
+    public File(String name, String path, String hash, long size) {
+        this.name = name;
+        this.path = path;
+        this.hash = hash;
+        this.size = size;
+    }
+
     public int getId() {
         return id;
     }
@@ -39,6 +66,30 @@ public class File {
         this.path = path;
     }
 
+    public String getHash() {
+        return hash;
+    }
+
+    public void setHash(String hash) {
+        this.hash = hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public void setSize(long size) {
+        this.size = size;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public void setCreationDate(LocalDateTime creationDate) {
+        this.creationDate = creationDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -55,4 +106,4 @@ public class File {
     public int hashCode() {
         return Objects.hash(id, path);
     }
-}
\ No newline at end of file
+}
@@ -1,8 +1,13 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CandidateRepository {
@@ -16,4 +21,10 @@ public interface CandidateRepository {
     Optional<Candidate> findById(int id);
 
     Collection<Candidate> findAll();
+
+    Collection<Candidate> findAllAfterId(int id, int limit);
+
+    List<CandidateSummary> findPage(PageCursor after, ListFilter filter, int limit);
+
+    List<SearchHit> search(String query, int offset, int limit);
 }
@@ -2,6 +2,8 @@ package ru.job4j.dreamjob.repository;
 
 import ru.job4j.dreamjob.model.File;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 public interface FileRepository {
@@ -11,4 +13,16 @@ public interface FileRepository {
     Optional<File> findById(int id);
 
     void deleteById(int id);
+
+    int countByPath(String path);
+
+    Collection<File> findAllAfterId(int id, int limit);
+
+    void updatePath(String oldPath, String newPath);
+
+    Collection<File> findUnreferencedAfterId(int id, LocalDateTime createdBefore, int limit);
+
+    boolean deleteByIdIfUnreferenced(int id);
+
+    Collection<String> findExistingPaths(Collection<String> paths);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package ru.job4j.dreamjob.repository;
+
+import org.sql2o.Query;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/* Условия WHERE для страницы списка: в текст запроса попадают только заполненные поля фильтра и курсор,
+а их значения всегда передаются параметрами. Так число разных текстов запроса ограничено
+сочетаниями полей, и каждый из них один раз разбирается базой и кэшируется пулом prepared statements */
+class FilteredPageQuery {
+
+    private final String alias;
+
+    private final StringBuilder where = new StringBuilder();
+
+    private final Map<String, Object> parameters = new LinkedHashMap<>();
+
+    FilteredPageQuery(String alias, ListFilter filter, PageCursor after, boolean hasVisible) {
+        this.alias = alias;
+        if (filter.getCityId() != null) {
+            add(column("city_id") + " = :cityId", "cityId", filter.getCityId());
+        }
+        if (hasVisible && filter.getVisible() != null) {
+            add(column("visible") + " = :visible", "visible", filter.getVisible());
+        }
+        if (filter.createdFrom() != null) {
+            add(column("creation_date") + " >= :createdFrom", "createdFrom", filter.createdFrom());
+        }
+        if (filter.createdUntil() != null) {
+            add(column("creation_date") + " < :createdUntil", "createdUntil", filter.createdUntil());
+        }
+        if (after != null) {
+            add("(" + column("creation_date") + ", " + column("id") + ") < (:creationDate, :id)",
+                    "creationDate", after.creationDate());
+            parameters.put("id", after.id());
+        }
+    }
+
+    private String column(String name) {
+        return alias + "." + name;
+    }
+
+    private void add(String condition, String name, Object value) {
+        where.append(where.length() == 0 ? "WHERE " : "AND ").append(condition).append(' ');
+        parameters.put(name, value);
+    }
+
+    String where() {
+        return where.toString();
+    }
+
+    Query bind(Query query) {
+        for (var parameter : parameters.entrySet()) {
+            query.addParameter(parameter.getKey(), parameter.getValue());
+        }
+        return query;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.job4j.dreamjob.repository;
+
+import org.sql2o.Connection;
+import org.sql2o.Query;
+import org.sql2o.ResultSetHandler;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.SearchHit;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/* Полнотекстовый поиск по таблице вакансий или резюме на стороне базы.
+В PostgreSQL запрос разбирает websearch_to_tsquery (все слова запроса, "фраза в кавычках", -исключение),
+совпадения ищутся по GIN-индексу на колонке search_vector из 012_ddl_create_search_vectors.sql,
+а порядок задаёт ts_rank_cd, в котором совпадение в заголовке весит больше, чем в описании.
+В остальных базах (H2 в тестах) колонки search_vector нет: документ должен содержать все слова запроса
+как подстроки заголовка или описания, и результаты идут от новых к старым без ранжирования */
+class FullTextSearch {
+
+    private static final int MAX_WORDS = 8;
+
+    private static final ResultSetHandler<SearchHit> HIT_MAPPER =
+            resultSet -> new SearchHit(resultSet.getInt(1), resultSet.getString(2), resultSet.getDouble(3));
+
+    private final Sql2o sql2o;
+
+    private final String table;
+
+    private final String titleColumn;
+
+    private final boolean postgres;
+
+    FullTextSearch(Sql2o sql2o, String table, String titleColumn) {
+        this.sql2o = sql2o;
+        this.table = table;
+        this.titleColumn = titleColumn;
+        this.postgres = isPostgres(sql2o);
+    }
+
+    private static boolean isPostgres(Sql2o sql2o) {
+        try (var connection = sql2o.open()) {
+            return "PostgreSQL".equals(connection.getJdbcConnection().getMetaData().getDatabaseProductName());
+        } catch (SQLException e) {
+            throw new RuntimeException("Не удалось определить тип базы данных", e);
+        }
+    }
+
+    List<SearchHit> search(String text, int offset, int limit) {
+        var words = Arrays.stream(text.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(word -> !word.isBlank())
+                .limit(MAX_WORDS)
+                .toList();
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        try (var connection = sql2o.open()) {
+            var query = postgres
+                    ? connection.createQuery("SELECT id, " + titleColumn + ", ts_rank_cd(search_vector, query) AS rank "
+                            + "FROM " + table + ", websearch_to_tsquery('russian', :text) query "
+                            + "WHERE search_vector @@ query ORDER BY rank DESC, id DESC LIMIT :limit OFFSET :offset")
+                            .addParameter("text", text)
+                    : likeQuery(connection, words);
+            query.addParameter("offset", offset);
+            query.addParameter("limit", limit);
+            return query.executeAndFetch(HIT_MAPPER);
+        }
+    }
+
+    private Query likeQuery(Connection connection, List<String> words) {
+        var where = new StringBuilder();
+        for (int i = 0; i < words.size(); i++) {
+            where.append(i == 0 ? "WHERE " : " AND ")
+                    .append("(lower(").append(titleColumn).append(") LIKE :word").append(i)
+                    .append(" ESCAPE '\\' OR lower(description) LIKE :word").append(i).append(" ESCAPE '\\')");
+        }
+        var query = connection.createQuery("SELECT id, " + titleColumn + ", 0 FROM " + table + " " + where
+                + " ORDER BY creation_date DESC, id DESC LIMIT :limit OFFSET :offset");
+        for (int i = 0; i < words.size(); i++) {
+            query.addParameter("word" + i, "%" + escapeLike(words.get(i)) + "%");
+        }
+        return query;
+    }
+
+    private static String escapeLike(String word) {
+        return word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -2,9 +2,17 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Candidate;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -14,6 +22,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Repository
 public class MemoryCandidateRepository implements CandidateRepository {
 
+    private static final Comparator<Candidate> NEWEST_FIRST = Comparator.comparing(Candidate::getCreationDate)
+            .thenComparingInt(Candidate::getId).reversed();
+
     private final AtomicInteger nextId = new AtomicInteger(0);
 
     private final Map<Integer, Candidate> candidates = new ConcurrentHashMap<>();
@@ -76,4 +87,49 @@ public class MemoryCandidateRepository implements CandidateRepository {
     public Collection<Candidate> findAll() {
         return candidates.values();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Collection<Candidate> findAllAfterId(int id, int limit) {
+        return candidates.values().stream()
+                .filter(candidate -> candidate.getId() > id)
+                .sorted(Comparator.comparingInt(Candidate::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    /* городов в памяти нет, поэтому название города в списке не заполняется */
+    @Override
+    public List<CandidateSummary> findPage(PageCursor after, ListFilter filter, int limit) {
+        return candidates.values().stream()
+                .filter(candidate -> after == null || isAfter(candidate, after))
+                .filter(candidate -> filter.matches(candidate.getCityId(), null, candidate.getCreationDate()))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(candidate -> new CandidateSummary(candidate.getId(), candidate.getName(), candidate.getCreationDate(), null))
+                .toList();
+    }
+
+    /* документ должен содержать все слова запроса, новые выше; без ранжирования */
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        var words = query.toLowerCase(Locale.ROOT).split("\\s+");
+        return candidates.values().stream()
+                .filter(candidate -> containsAll(candidate.getName() + " " + candidate.getDescription(), words))
+                .sorted(NEWEST_FIRST)
+                .skip(offset)
+                .limit(limit)
+                .map(candidate -> new SearchHit(candidate.getId(), candidate.getName(), 0))
+                .toList();
+    }
+
+    private boolean containsAll(String text, String[] words) {
+        var lower = text.toLowerCase(Locale.ROOT);
+        return Arrays.stream(words).allMatch(lower::contains);
+    }
+
+    /* тот же порядок, что и в Sql2oCandidateRepository: (creation_date, id) по убыванию */
+    private boolean isAfter(Candidate candidate, PageCursor cursor) {
+        var byDate = candidate.getCreationDate().compareTo(cursor.creationDate());
+        return byDate < 0 || byDate == 0 && candidate.getId() < cursor.id();
+    }
+}
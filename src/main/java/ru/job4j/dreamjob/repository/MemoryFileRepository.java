@@ -3,10 +3,15 @@ package ru.job4j.dreamjob.repository;
 import org.springframework.stereotype.Repository;
 import ru.job4j.dreamjob.model.File;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 @Repository
 public class MemoryFileRepository implements FileRepository {
@@ -31,4 +36,46 @@ public class MemoryFileRepository implements FileRepository {
     public void deleteById(int id) {
         files.remove(id);
     }
-}
\ No newline at end of file
+
+    @Override
+    public int countByPath(String path) {
+        return (int) files.values().stream()
+                .filter(file -> file.getPath().equals(path))
+                .count();
+    }
+
+    @Override
+    public Collection<File> findAllAfterId(int id, int limit) {
+        return files.values().stream()
+                .filter(file -> file.getId() > id)
+                .sorted(Comparator.comparingInt(File::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public void updatePath(String oldPath, String newPath) {
+        files.values().stream()
+                .filter(file -> file.getPath().equals(oldPath))
+                .forEach(file -> file.setPath(newPath));
+    }
+
+    /* в памяти не видно, какие файлы заняты вакансиями и кандидатами, поэтому все считаются занятыми */
+    @Override
+    public Collection<File> findUnreferencedAfterId(int id, LocalDateTime createdBefore, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public boolean deleteByIdIfUnreferenced(int id) {
+        return false;
+    }
+
+    @Override
+    public Collection<String> findExistingPaths(Collection<String> paths) {
+        return files.values().stream()
+                .map(File::getPath)
+                .filter(paths::contains)
+                .collect(Collectors.toSet());
+    }
+}
@@ -2,9 +2,17 @@ package ru.job4j.dreamjob.repository;
 
 import net.jcip.annotations.ThreadSafe;
 import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -14,6 +22,9 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Repository
 public class MemoryVacancyRepository implements VacancyRepository {
 
+    private static final Comparator<Vacancy> NEWEST_FIRST = Comparator.comparing(Vacancy::getCreationDate)
+            .thenComparingInt(Vacancy::getId).reversed();
+
     private final AtomicInteger nextId = new AtomicInteger(0);
 
     private final Map<Integer, Vacancy> vacancies = new ConcurrentHashMap<>();
@@ -74,4 +85,49 @@ public class MemoryVacancyRepository implements VacancyRepository {
     public Collection<Vacancy> findAll() {
         return vacancies.values();
     }
-}
\ No newline at end of file
+
+    @Override
+    public Collection<Vacancy> findAllAfterId(int id, int limit) {
+        return vacancies.values().stream()
+                .filter(vacancy -> vacancy.getId() > id)
+                .sorted(Comparator.comparingInt(Vacancy::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    /* городов в памяти нет, поэтому название города в списке не заполняется */
+    @Override
+    public List<VacancySummary> findPage(PageCursor after, ListFilter filter, int limit) {
+        return vacancies.values().stream()
+                .filter(vacancy -> after == null || isAfter(vacancy, after))
+                .filter(vacancy -> filter.matches(vacancy.getCityId(), vacancy.getVisible(), vacancy.getCreationDate()))
+                .sorted(NEWEST_FIRST)
+                .limit(limit)
+                .map(vacancy -> new VacancySummary(vacancy.getId(), vacancy.getTitle(), vacancy.getCreationDate(), vacancy.getVisible(), null))
+                .toList();
+    }
+
+    /* документ должен содержать все слова запроса, новые выше; без ранжирования */
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        var words = query.toLowerCase(Locale.ROOT).split("\\s+");
+        return vacancies.values().stream()
+                .filter(vacancy -> containsAll(vacancy.getTitle() + " " + vacancy.getDescription(), words))
+                .sorted(NEWEST_FIRST)
+                .skip(offset)
+                .limit(limit)
+                .map(vacancy -> new SearchHit(vacancy.getId(), vacancy.getTitle(), 0))
+                .toList();
+    }
+
+    private boolean containsAll(String text, String[] words) {
+        var lower = text.toLowerCase(Locale.ROOT);
+        return Arrays.stream(words).allMatch(lower::contains);
+    }
+
+    /* тот же порядок, что и в Sql2oVacancyRepository: (creation_date, id) по убыванию */
+    private boolean isAfter(Vacancy vacancy, PageCursor cursor) {
+        var byDate = vacancy.getCreationDate().compareTo(cursor.creationDate());
+        return byDate < 0 || byDate == 0 && vacancy.getId() < cursor.id();
+    }
+}
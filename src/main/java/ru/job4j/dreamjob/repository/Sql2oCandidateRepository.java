@@ -1,19 +1,35 @@
 package ru.job4j.dreamjob.repository;
 
 import org.springframework.stereotype.Repository;
+import org.sql2o.ResultSetHandler;
 import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Candidate;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class Sql2oCandidateRepository implements CandidateRepository {
 
+    /* явный список колонок: служебные колонки таблицы, например search_vector, не попадают в маппинг */
+    private static final String COLUMNS = "id, name, description, creation_date, city_id, file_id";
+
+    private static final ResultSetHandler<CandidateSummary> SUMMARY_MAPPER = resultSet -> new CandidateSummary(
+            resultSet.getInt(1), resultSet.getString(2), resultSet.getTimestamp(3).toLocalDateTime(),
+            resultSet.getString(4));
+
     private final Sql2o sql2o;
 
+    private final FullTextSearch fullTextSearch;
+
     public Sql2oCandidateRepository(Sql2o sql2o) {
         this.sql2o = sql2o;
+        this.fullTextSearch = new FullTextSearch(sql2o, "candidates", "name");
     }
 
     @Override
@@ -69,7 +85,7 @@ public class Sql2oCandidateRepository implements CandidateRepository {
     @Override
     public Optional<Candidate> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates WHERE id = :id");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM candidates WHERE id = :id");
             query.addParameter("id", id);
             var vacancy = query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetchFirst(Candidate.class);
             return Optional.ofNullable(vacancy);
@@ -79,8 +95,40 @@ public class Sql2oCandidateRepository implements CandidateRepository {
     @Override
     public Collection<Candidate> findAll() {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM candidates");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM candidates");
+            return query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetch(Candidate.class);
+        }
+    }
+
+    @Override
+    public Collection<Candidate> findAllAfterId(int id, int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM candidates WHERE id > :id ORDER BY id LIMIT :limit");
+            query.addParameter("id", id);
+            query.addParameter("limit", limit);
             return query.setColumnMappings(Candidate.COLUMN_MAPPING).executeAndFetch(Candidate.class);
         }
     }
+
+    /* Keyset-пагинация: страница начинается сразу после курсора по индексу (creation_date, id),
+    поэтому её стоимость не зависит от того, насколько далеко пролистан список. after = null - первая страница.
+    Фильтр по городу обслуживают составные индексы из 013_ddl_create_list_filter_indexes.sql.
+    Выбираются только колонки, которые показывает список, а название города приходит в том же запросе
+    через join. Строки разбираются по номерам колонок, без поиска сеттеров по рефлексии на каждую строку */
+    @Override
+    public List<CandidateSummary> findPage(PageCursor after, ListFilter filter, int limit) {
+        var page = new FilteredPageQuery("ca", filter, after, false);
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT ca.id, ca.name, ca.creation_date, c.name FROM candidates ca "
+                    + "LEFT JOIN cities c ON c.id = ca.city_id " + page.where()
+                    + "ORDER BY ca.creation_date DESC, ca.id DESC LIMIT :limit");
+            page.bind(query).addParameter("limit", limit);
+            return query.executeAndFetch(SUMMARY_MAPPER);
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        return fullTextSearch.search(query, offset, limit);
+    }
 }
@@ -4,6 +4,9 @@ import org.springframework.stereotype.Repository;
 import org.sql2o.Sql2o;
 import ru.job4j.dreamjob.model.File;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,9 +21,16 @@ public class Sql2oFileRepository implements FileRepository {
     @Override
     public File save(File file) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("INSERT INTO files (name, path) VALUES (:name, :path)", true)
+            var sql = """
+                    INSERT INTO files (name, path, hash, size, creation_date)
+                    VALUES (:name, :path, :hash, :size, :creationDate)
+                    """;
+            var query = connection.createQuery(sql, true)
                     .addParameter("name", file.getName())
-                    .addParameter("path", file.getPath());
+                    .addParameter("path", file.getPath())
+                    .addParameter("hash", file.getHash())
+                    .addParameter("size", file.getSize())
+                    .addParameter("creationDate", file.getCreationDate());
             int generatedId = query.executeUpdate().getKey(Integer.class);
             file.setId(generatedId);
             return file;
@@ -31,7 +41,8 @@ public class Sql2oFileRepository implements FileRepository {
     public Optional<File> findById(int id) {
         try (var connection = sql2o.open()) {
             var query = connection.createQuery("SELECT * FROM files WHERE id = :id");
-            var file = query.addParameter("id", id).executeAndFetchFirst(File.class);
+            var file = query.addParameter("id", id)
+                    .setColumnMappings(File.COLUMN_MAPPING).executeAndFetchFirst(File.class);
             return Optional.ofNullable(file);
         }
     }
@@ -43,4 +54,79 @@ public class Sql2oFileRepository implements FileRepository {
             query.addParameter("id", id).executeUpdate();
         }
     }
-}
\ No newline at end of file
+
+    @Override
+    public int countByPath(String path) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT count(*) FROM files WHERE path = :path");
+            return query.addParameter("path", path).executeScalar(Integer.class);
+        }
+    }
+
+    @Override
+    public Collection<File> findAllAfterId(int id, int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM files WHERE id > :id ORDER BY id LIMIT :limit");
+            query.addParameter("id", id);
+            query.addParameter("limit", limit);
+            return query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetch(File.class);
+        }
+    }
+
+    @Override
+    public void updatePath(String oldPath, String newPath) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE files SET path = :newPath WHERE path = :oldPath");
+            query.addParameter("newPath", newPath);
+            query.addParameter("oldPath", oldPath);
+            query.executeUpdate();
+        }
+    }
+
+    /* строки, на которые не ссылаются ни вакансии, ни кандидаты; по file_id есть индексы */
+    @Override
+    public Collection<File> findUnreferencedAfterId(int id, LocalDateTime createdBefore, int limit) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                    SELECT * FROM files f
+                    WHERE f.id > :id AND f.creation_date < :createdBefore
+                    AND NOT EXISTS (SELECT 1 FROM vacancies v WHERE v.file_id = f.id)
+                    AND NOT EXISTS (SELECT 1 FROM candidates c WHERE c.file_id = f.id)
+                    ORDER BY f.id LIMIT :limit
+                    """;
+            var query = connection.createQuery(sql);
+            query.addParameter("id", id);
+            query.addParameter("createdBefore", createdBefore);
+            query.addParameter("limit", limit);
+            return query.setColumnMappings(File.COLUMN_MAPPING).executeAndFetch(File.class);
+        }
+    }
+
+    /* проверка ссылок и удаление одним запросом: строка, на которую успели сослаться, не удаляется */
+    @Override
+    public boolean deleteByIdIfUnreferenced(int id) {
+        try (var connection = sql2o.open()) {
+            var sql = """
+                    DELETE FROM files f
+                    WHERE f.id = :id
+                    AND NOT EXISTS (SELECT 1 FROM vacancies v WHERE v.file_id = f.id)
+                    AND NOT EXISTS (SELECT 1 FROM candidates c WHERE c.file_id = f.id)
+                    """;
+            var query = connection.createQuery(sql);
+            query.addParameter("id", id);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public Collection<String> findExistingPaths(Collection<String> paths) {
+        if (paths.isEmpty()) {
+            return List.of();
+        }
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT DISTINCT path FROM files WHERE path IN (:paths)");
+            query.addParameter("paths", paths.toArray());
+            return query.executeScalarList(String.class);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Repository;
 import org.sql2o.Sql2o;
 import ru.job4j.dreamjob.model.User;
 
+import java.util.Collection;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,17 +41,35 @@ public class Sql2oUserRepository implements UserRepository {
     }
 
     @Override
-    public Optional<User> findByEmailAndPassword(String email, String password) {
+    public Optional<User> findByEmail(String email) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery(
-                    "SELECT * FROM users WHERE email = :email AND password = :password");
+            var query = connection.createQuery("SELECT * FROM users WHERE email = :email");
             query.addParameter("email", email);
-            query.addParameter("password", password);
             var user = query.executeAndFetchFirst(User.class);
             return Optional.ofNullable(user);
         }
     }
 
+    @Override
+    public boolean updatePassword(int id, String password) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("UPDATE users SET password = :password WHERE id = :id");
+            query.addParameter("password", password);
+            query.addParameter("id", id);
+            return query.executeUpdate().getResult() > 0;
+        }
+    }
+
+    @Override
+    public Collection<User> findAllAfterId(int id, int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM users WHERE id > :id ORDER BY id LIMIT :limit");
+            query.addParameter("id", id);
+            query.addParameter("limit", limit);
+            return query.executeAndFetch(User.class);
+        }
+    }
+
     public void deleteAllUsers() {
         try (var connection = sql2o.open()) {
             var query = connection.createQuery("DELETE FROM users");
@@ -1,19 +1,35 @@
 package ru.job4j.dreamjob.repository;
 
 import org.springframework.stereotype.Repository;
+import org.sql2o.ResultSetHandler;
 import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public class Sql2oVacancyRepository implements VacancyRepository {
 
+    /* явный список колонок: служебные колонки таблицы, например search_vector, не попадают в маппинг */
+    private static final String COLUMNS = "id, title, description, creation_date, visible, city_id, file_id";
+
+    private static final ResultSetHandler<VacancySummary> SUMMARY_MAPPER = resultSet -> new VacancySummary(
+            resultSet.getInt(1), resultSet.getString(2), resultSet.getTimestamp(3).toLocalDateTime(),
+            resultSet.getBoolean(4), resultSet.getString(5));
+
     private final Sql2o sql2o;
 
+    private final FullTextSearch fullTextSearch;
+
     public Sql2oVacancyRepository(Sql2o sql2o) {
         this.sql2o = sql2o;
+        this.fullTextSearch = new FullTextSearch(sql2o, "vacancies", "title");
     }
 
     @Override
@@ -72,7 +88,7 @@ public class Sql2oVacancyRepository implements VacancyRepository {
     @Override
     public Optional<Vacancy> findById(int id) {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies WHERE id = :id");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM vacancies WHERE id = :id");
             query.addParameter("id", id);
             var vacancy = query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetchFirst(Vacancy.class);
             return Optional.ofNullable(vacancy);
@@ -82,8 +98,40 @@ public class Sql2oVacancyRepository implements VacancyRepository {
     @Override
     public Collection<Vacancy> findAll() {
         try (var connection = sql2o.open()) {
-            var query = connection.createQuery("SELECT * FROM vacancies");
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM vacancies");
+            return query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetch(Vacancy.class);
+        }
+    }
+
+    @Override
+    public Collection<Vacancy> findAllAfterId(int id, int limit) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT " + COLUMNS + " FROM vacancies WHERE id > :id ORDER BY id LIMIT :limit");
+            query.addParameter("id", id);
+            query.addParameter("limit", limit);
             return query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetch(Vacancy.class);
         }
     }
-}
\ No newline at end of file
+
+    /* Keyset-пагинация: страница начинается сразу после курсора по индексу (creation_date, id),
+    поэтому её стоимость не зависит от того, насколько далеко пролистан список. after = null - первая страница.
+    Фильтр по городу и видимости обслуживают составные индексы из 013_ddl_create_list_filter_indexes.sql.
+    Выбираются только колонки, которые показывает список, а название города приходит в том же запросе
+    через join. Строки разбираются по номерам колонок, без поиска сеттеров по рефлексии на каждую строку */
+    @Override
+    public List<VacancySummary> findPage(PageCursor after, ListFilter filter, int limit) {
+        var page = new FilteredPageQuery("v", filter, after, true);
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT v.id, v.title, v.creation_date, v.visible, c.name FROM vacancies v "
+                    + "LEFT JOIN cities c ON c.id = v.city_id " + page.where()
+                    + "ORDER BY v.creation_date DESC, v.id DESC LIMIT :limit");
+            page.bind(query).addParameter("limit", limit);
+            return query.executeAndFetch(SUMMARY_MAPPER);
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String query, int offset, int limit) {
+        return fullTextSearch.search(query, offset, limit);
+    }
+}
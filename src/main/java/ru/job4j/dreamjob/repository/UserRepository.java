@@ -2,9 +2,14 @@ package ru.job4j.dreamjob.repository;
 
 import ru.job4j.dreamjob.model.User;
 
+import java.util.Collection;
 import java.util.Optional;
 public interface UserRepository {
     Optional<User> save(User user);
 
-    Optional<User> findByEmailAndPassword(String email, String password);
+    Optional<User> findByEmail(String email);
+
+    boolean updatePassword(int id, String password);
+
+    Collection<User> findAllAfterId(int id, int limit);
 }
@@ -1,8 +1,13 @@
 package ru.job4j.dreamjob.repository;
 
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface VacancyRepository {
@@ -16,4 +21,10 @@ public interface VacancyRepository {
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
+
+    Collection<Vacancy> findAllAfterId(int id, int limit);
+
+    List<VacancySummary> findPage(PageCursor after, ListFilter filter, int limit);
+
+    List<SearchHit> search(String query, int offset, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package ru.job4j.dreamjob.search;
+
+import ru.job4j.dreamjob.dto.SearchHit;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/* Инвертированный индекс в памяти: для каждого терма - список документов и частот терма в них.
+Документы нумеруются плотными порядковыми номерами, чтобы частоты, длины и заголовки лежали в массивах,
+а номера удалённых документов переиспользуются. Релевантность считается по BM25:
+совпадение по редкому терму весит больше, а длинный документ получает меньше за каждое вхождение.
+Поиск выполняется под блокировкой чтения и идёт параллельно с другими поисками, изменения - под блокировкой записи */
+public class InvertedIndex {
+
+    private static final float K1 = 1.2f;
+
+    private static final float B = 0.75f;
+
+    private final Tokenizer tokenizer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Map<Integer, Integer> ordinals = new HashMap<>();
+
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private int[] ids = new int[16];
+
+    private int[] lengths = new int[16];
+
+    private String[] titles = new String[16];
+
+    private String[][] terms = new String[16][];
+
+    private int nextOrdinal;
+
+    private long totalLength;
+
+    public InvertedIndex(Tokenizer tokenizer) {
+        this.tokenizer = tokenizer;
+    }
+
+    /* добавляет документ или заменяет ранее проиндексированный с тем же id */
+    public void put(int id, String title, String... texts) {
+        var frequencies = new HashMap<String, Integer>();
+        var length = 0;
+        for (var text : texts) {
+            for (var term : tokenizer.tokenize(text)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+            var ordinal = allocate();
+            var documentTerms = new String[frequencies.size()];
+            var i = 0;
+            for (var entry : frequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+                documentTerms[i++] = entry.getKey();
+            }
+            ids[ordinal] = id;
+            lengths[ordinal] = length;
+            titles[ordinal] = title;
+            terms[ordinal] = documentTerms;
+            ordinals.put(id, ordinal);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* документы, содержащие хотя бы один терм запроса, по убыванию релевантности;
+    при равной релевантности выше документ с большим id, то есть более новый */
+    public List<SearchHit> search(String query, int offset, int limit) {
+        var queryTerms = new LinkedHashSet<>(tokenizer.tokenize(query));
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            var documents = ordinals.size();
+            if (documents == 0) {
+                return List.of();
+            }
+            var matchedLists = new ArrayList<Postings>(queryTerms.size());
+            for (var term : queryTerms) {
+                var list = postings.get(term);
+                if (list != null) {
+                    matchedLists.add(list);
+                }
+            }
+            if (matchedLists.isEmpty()) {
+                return List.of();
+            }
+            var averageLength = (float) totalLength / documents;
+            var scores = new float[nextOrdinal];
+            var matched = new int[16];
+            var matchedCount = 0;
+            for (var list : matchedLists) {
+                var idf = (float) Math.log(1 + (documents - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    var ordinal = list.ordinals[i];
+                    var frequency = list.frequencies[i];
+                    if (scores[ordinal] == 0) {
+                        if (matchedCount == matched.length) {
+                            matched = Arrays.copyOf(matched, matchedCount * 2);
+                        }
+                        matched[matchedCount++] = ordinal;
+                    }
+                    var norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                    scores[ordinal] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+            return top(scores, matched, matchedCount, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* в куче держится не больше offset + limit лучших документов, худший на вершине;
+    куча на массиве int, чтобы не упаковывать сотни тысяч номеров документов в Integer */
+    private List<SearchHit> top(float[] scores, int[] matched, int matchedCount, int offset, int limit) {
+        var heap = new TopDocuments(Math.min(offset + limit, matchedCount), scores, ids);
+        for (int i = 0; i < matchedCount; i++) {
+            heap.offer(matched[i]);
+        }
+        var hits = new SearchHit[Math.max(0, heap.size - offset)];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            var ordinal = heap.pollWorst();
+            hits[i] = new SearchHit(ids[ordinal], titles[ordinal], scores[ordinal]);
+        }
+        return Arrays.asList(hits);
+    }
+
+    private int allocate() {
+        if (!freeOrdinals.isEmpty()) {
+            return freeOrdinals.pop();
+        }
+        if (nextOrdinal == ids.length) {
+            var capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            titles = Arrays.copyOf(titles, capacity);
+            terms = Arrays.copyOf(terms, capacity);
+        }
+        return nextOrdinal++;
+    }
+
+    private void removeLocked(int id) {
+        var ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        for (var term : terms[ordinal]) {
+            var list = postings.get(term);
+            list.remove(ordinal);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= lengths[ordinal];
+        titles[ordinal] = null;
+        terms[ordinal] = null;
+        freeOrdinals.push(ordinal);
+    }
+
+    /* порядок документов в списке не важен, поэтому удаление переносит на место удалённого последний элемент */
+    private static final class Postings {
+
+        private int[] ordinals = new int[4];
+
+        private int[] frequencies = new int[4];
+
+        private int size;
+
+        private void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            ordinals[size] = ordinal;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        private void remove(int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /* двоичная куча фиксированной ёмкости: документ хуже, если у него меньше релевантность, а при равной - меньше id */
+    private static final class TopDocuments {
+
+        private final int[] heap;
+
+        private final float[] scores;
+
+        private final int[] ids;
+
+        private int size;
+
+        private TopDocuments(int capacity, float[] scores, int[] ids) {
+            this.heap = new int[capacity];
+            this.scores = scores;
+            this.ids = ids;
+        }
+
+        private void offer(int ordinal) {
+            if (size < heap.length) {
+                heap[size] = ordinal;
+                siftUp(size++);
+            } else if (heap.length > 0 && worse(heap[0], ordinal)) {
+                heap[0] = ordinal;
+                siftDown(0);
+            }
+        }
+
+        private int pollWorst() {
+            var worst = heap[0];
+            heap[0] = heap[--size];
+            siftDown(0);
+            return worst;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                var parent = (index - 1) / 2;
+                if (!worse(heap[index], heap[parent])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                var worst = index;
+                var left = 2 * index + 1;
+                var right = left + 1;
+                if (left < size && worse(heap[left], heap[worst])) {
+                    worst = left;
+                }
+                if (right < size && worse(heap[right], heap[worst])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(index, worst);
+                index = worst;
+            }
+        }
+
+        private boolean worse(int left, int right) {
+            return scores[left] != scores[right] ? scores[left] < scores[right] : ids[left] < ids[right];
+        }
+
+        private void swap(int i, int j) {
+            var tmp = heap[i];
+            heap[i] = heap[j];
+            heap[j] = tmp;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.job4j.dreamjob.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/* Разбивает текст на термы для поиска: нижний регистр, ё заменяется на е, служебные слова отбрасываются,
+а у слов отрезаются типичные окончания, чтобы "разработчика" и "разработчиков" нашлись по "разработчик".
+Стемминг лёгкий, без словаря: русские слова определяются по кириллице, остальные считаются английскими.
+Символы + и # остаются частью слова ради c++ и c# */
+public class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "и", "в", "во", "на", "с", "со", "по", "к", "ко", "о", "об", "от", "до", "из", "за", "для", "не",
+            "что", "как", "а", "но", "или", "у", "же", "бы", "ли", "это",
+            "the", "an", "and", "or", "of", "to", "in", "on", "for", "with", "is", "are", "be", "at", "by"
+    );
+
+    private static final String[] RUSSIAN_ENDINGS = byLengthDescending(
+            "иями", "ями", "ами", "ого", "его", "ому", "ему", "ыми", "ими", "ией", "ать", "ять", "ить", "ешь",
+            "ой", "ей", "ий", "ый", "ая", "яя", "ое", "ее", "ые", "ие", "ую", "юю", "ом", "ем", "ах", "ях",
+            "ов", "ев", "ам", "ям", "ть", "ет", "ют", "ут", "ит", "ат", "ят", "ия", "ию", "ии",
+            "а", "я", "о", "е", "ы", "и", "у", "ю", "ь", "й"
+    );
+
+    private static final String[] ENGLISH_ENDINGS = byLengthDescending(
+            "ations", "ation", "ings", "ing", "ness", "ment", "ers", "ies", "ed", "er", "es", "ly", "s", "e"
+    );
+
+    private static final int MIN_RUSSIAN_STEM = 3;
+
+    private static final int MIN_ENGLISH_STEM = 4;
+
+    public List<String> tokenize(String text) {
+        var terms = new ArrayList<String>();
+        if (text == null) {
+            return terms;
+        }
+        var lower = text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        var start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            var inWord = i < lower.length() && isWordChar(lower.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private void addTerm(List<String> terms, String word) {
+        if (word.length() < 2 || STOP_WORDS.contains(word)) {
+            return;
+        }
+        terms.add(stem(word));
+    }
+
+    static String stem(String word) {
+        var russian = isCyrillic(word.charAt(0));
+        var endings = russian ? RUSSIAN_ENDINGS : ENGLISH_ENDINGS;
+        var minStem = russian ? MIN_RUSSIAN_STEM : MIN_ENGLISH_STEM;
+        for (var ending : endings) {
+            if (word.endsWith(ending) && word.length() - ending.length() >= minStem) {
+                return word.substring(0, word.length() - ending.length());
+            }
+        }
+        return word;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '+' || c == '#';
+    }
+
+    private static boolean isCyrillic(char c) {
+        return Character.UnicodeBlock.of(c) == Character.UnicodeBlock.CYRILLIC;
+    }
+
+    private static String[] byLengthDescending(String... endings) {
+        var sorted = endings.clone();
+        Arrays.sort(sorted, Comparator.comparingInt(String::length).reversed());
+        return sorted;
+    }
+}
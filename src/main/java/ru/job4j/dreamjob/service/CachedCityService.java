@@ -0,0 +1,80 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.model.City;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/* Справочник городов почти не меняется, поэтому он держится в памяти неизменяемым снимком
+и перечитывается из базы раз в cities.cache.ttl: записи в него идут только миграциями.
+Снимок загружается при создании сервиса, так что страницы с городами не ходят в базу.
+Когда снимок устарел, его перечитывает один поток, а остальные пока получают старый снимок */
+@Service
+@Primary
+public class CachedCityService implements CityService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachedCityService.class.getName());
+
+    private final SimpleCityService cityService;
+
+    private final long ttlNanos;
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public CachedCityService(SimpleCityService cityService,
+                             @Value("${cities.cache.ttl:PT10M}") Duration ttl) {
+        this.cityService = cityService;
+        this.ttlNanos = ttl.toNanos();
+        this.snapshot = load();
+    }
+
+    @Override
+    public Collection<City> findAll() {
+        return current().cities();
+    }
+
+    @Override
+    public Optional<City> findById(int id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    private Snapshot current() {
+        var current = snapshot;
+        if (System.nanoTime() - current.expiresAt() < 0 || !refreshLock.tryLock()) {
+            return current;
+        }
+        try {
+            if (snapshot == current) {
+                snapshot = load();
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            LOG.warn("Не удалось обновить справочник городов, используется прежний", e);
+            return current;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private Snapshot load() {
+        var cities = List.copyOf(cityService.findAll());
+        var byId = cities.stream().collect(Collectors.toUnmodifiableMap(City::getId, Function.identity()));
+        return new Snapshot(cities, byId, System.nanoTime() + ttlNanos);
+    }
+
+    private record Snapshot(List<City> cities, Map<Integer, City> byId, long expiresAt) {
+    }
+}
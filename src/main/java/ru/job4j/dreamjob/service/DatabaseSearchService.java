@@ -0,0 +1,58 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+/* Поиск силами базы: для таблиц, которые не помещаются в индекс в памяти каждого экземпляра приложения.
+Колонки search_vector PostgreSQL пересчитывает сам при каждой записи, поэтому index и remove ничего не делают.
+Включается search.mode=database */
+@Service
+@ConditionalOnProperty(name = "search.mode", havingValue = "database")
+public class DatabaseSearchService implements SearchService {
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CandidateRepository candidateRepository;
+
+    public DatabaseSearchService(VacancyRepository sql2oVacancyRepository,
+                                 CandidateRepository sql2oCandidateRepository) {
+        this.vacancyRepository = sql2oVacancyRepository;
+        this.candidateRepository = sql2oCandidateRepository;
+    }
+
+    @Override
+    public Page<SearchHit> searchVacancies(String query, String cursor, int size) {
+        var pageSize = Page.limitSize(size);
+        var offset = Page.parseOffset(cursor);
+        return Page.atOffset(vacancyRepository.search(query, offset, pageSize + 1), pageSize, offset);
+    }
+
+    @Override
+    public Page<SearchHit> searchCandidates(String query, String cursor, int size) {
+        var pageSize = Page.limitSize(size);
+        var offset = Page.parseOffset(cursor);
+        return Page.atOffset(candidateRepository.search(query, offset, pageSize + 1), pageSize, offset);
+    }
+
+    @Override
+    public void index(Vacancy vacancy) {
+    }
+
+    @Override
+    public void index(Candidate candidate) {
+    }
+
+    @Override
+    public void removeVacancy(int id) {
+    }
+
+    @Override
+    public void removeCandidate(int id) {
+    }
+}
@@ -0,0 +1,118 @@
+package ru.job4j.dreamjob.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+/* Ограниченный кэш сущностей по id: при переполнении вытесняется давно не читанная запись,
+а записи старше ttl считаются устаревшими и перечитываются из базы.
+Отсутствующие в базе сущности не кэшируются. max-size 0 отключает кэш */
+public class EntityCache<V> {
+
+    private final String name;
+
+    private final int maxSize;
+
+    private final long ttlNanos;
+
+    private final Map<Integer, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /* растёт при каждой инвалидации: загрузка, начатая до неё, не кладёт в кэш устаревшее значение */
+    private long invalidations;
+
+    public EntityCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry<V>> eldest) {
+                var overflow = size() > EntityCache.this.maxSize;
+                if (overflow) {
+                    evictions.increment();
+                }
+                return overflow;
+            }
+        };
+    }
+
+    public Optional<V> get(int id, IntFunction<Optional<V>> loader) {
+        if (maxSize <= 0) {
+            misses.increment();
+            return loader.apply(id);
+        }
+        long stamp;
+        synchronized (entries) {
+            var entry = entries.get(id);
+            if (entry != null && System.nanoTime() - entry.expiresAt() < 0) {
+                hits.increment();
+                return Optional.of(entry.value());
+            }
+            if (entry != null) {
+                entries.remove(id);
+                evictions.increment();
+            }
+            stamp = invalidations;
+        }
+        misses.increment();
+        var loaded = loader.apply(id);
+        loaded.ifPresent(value -> put(id, value, stamp));
+        return loaded;
+    }
+
+    public void invalidate(int id) {
+        synchronized (entries) {
+            invalidations++;
+            entries.remove(id);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            invalidations++;
+            entries.clear();
+        }
+    }
+
+    private void put(int id, V value, long stamp) {
+        synchronized (entries) {
+            if (stamp == invalidations) {
+                entries.put(id, new Entry<>(value, System.nanoTime() + ttlNanos));
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
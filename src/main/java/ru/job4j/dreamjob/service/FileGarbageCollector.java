@@ -0,0 +1,253 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.FileRepository;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/* Сборщик мусора хранилища файлов. Вакансии и кандидаты сохраняют и удаляют файлы
+не в одной транзакции со своей строкой, поэтому при сбое остаются строки files,
+на которые никто не ссылается, и блобы на диске без строки files.
+Сборщик по расписанию обходит таблицу пачками по id, а каталог - потоком через walkFileTree,
+и удаляет найденное пачками с паузой между ними, чтобы не мешать обработке запросов.
+Всё, что моложе file.gc.grace-period, не трогается: это может быть файл, сохранённый
+прямо сейчас, на который вакансия ещё не успела сослаться, или ещё не дописанная загрузка */
+@Component
+@ConditionalOnProperty(name = "file.gc.enabled", havingValue = "true", matchIfMissing = true)
+public class FileGarbageCollector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileGarbageCollector.class.getName());
+
+    private final SimpleFileService fileService;
+
+    private final FileRepository fileRepository;
+
+    private final FileStorageLayout layout;
+
+    private final ThumbnailGenerator thumbnails;
+
+    private final Duration gracePeriod;
+
+    private final int batchSize;
+
+    private final Duration batchPause;
+
+    private final AtomicLong runs = new AtomicLong();
+
+    private final AtomicLong reclaimedRows = new AtomicLong();
+
+    private final AtomicLong reclaimedBlobs = new AtomicLong();
+
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+
+    private final AtomicLong lastRunMillis = new AtomicLong();
+
+    public FileGarbageCollector(SimpleFileService fileService,
+                                FileRepository sql2oFileRepository,
+                                FileStorageLayout layout,
+                                ThumbnailGenerator thumbnails,
+                                @Value("${file.gc.grace-period:PT24H}") Duration gracePeriod,
+                                @Value("${file.gc.batch-size:500}") int batchSize,
+                                @Value("${file.gc.batch-pause:PT0.2S}") Duration batchPause) {
+        this.fileService = fileService;
+        this.fileRepository = sql2oFileRepository;
+        this.layout = layout;
+        this.thumbnails = thumbnails;
+        this.gracePeriod = gracePeriod;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+    }
+
+    @Scheduled(initialDelayString = "${file.gc.initial-delay:PT10M}", fixedDelayString = "${file.gc.interval:PT6H}")
+    public void collect() {
+        var start = System.nanoTime();
+        var cutoff = LocalDateTime.now().minus(gracePeriod);
+        var result = new Result();
+        collectRows(cutoff, result);
+        collectBlobs(cutoff, result);
+        var millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        runs.incrementAndGet();
+        reclaimedRows.addAndGet(result.rows);
+        reclaimedBlobs.addAndGet(result.blobs);
+        reclaimedBytes.addAndGet(result.bytes);
+        lastRunMillis.set(millis);
+        LOG.info("Сборка мусора в хранилище файлов: удалено строк files {}, файлов без строки {}, освобождено {} байт за {} мс",
+                result.rows, result.blobs, result.bytes, millis);
+    }
+
+    /* строки без ссылок удаляются через сервис: под замком блоба и с повторной проверкой ссылок в DELETE */
+    private void collectRows(LocalDateTime cutoff, Result result) {
+        var lastId = 0;
+        var batch = fileRepository.findUnreferencedAfterId(lastId, cutoff, batchSize);
+        while (!batch.isEmpty()) {
+            for (var file : batch) {
+                var freed = fileService.deleteIfUnreferenced(file);
+                if (freed >= 0) {
+                    result.rows++;
+                    result.bytes += freed;
+                }
+            }
+            lastId = batch.stream().mapToInt(File::getId).max().getAsInt();
+            pause();
+            batch = fileRepository.findUnreferencedAfterId(lastId, cutoff, batchSize);
+        }
+    }
+
+    private void collectBlobs(LocalDateTime cutoff, Result result) {
+        if (!Files.isDirectory(layout.getStorageDirectory()) || !isStorageDirectoryInUse()) {
+            return;
+        }
+        var cutoffInstant = cutoff.atZone(ZoneId.systemDefault()).toInstant();
+        var batch = new ArrayList<Blob>(batchSize);
+        try {
+            Files.walkFileTree(layout.getStorageDirectory(), new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile() && attributes.lastModifiedTime().toInstant().isBefore(cutoffInstant)) {
+                        batch.add(toBlob(file));
+                    }
+                    if (batch.size() == batchSize) {
+                        collectBlobBatch(batch, cutoffInstant, result);
+                        batch.clear();
+                        pause();
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                /* файл мог быть удалён или переименован во время обхода */
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        collectBlobBatch(batch, cutoffInstant, result);
+    }
+
+    /* Защита от смены file.directory: если строки files указывают в другой каталог,
+    все файлы текущего каталога выглядели бы лишними, поэтому обход каталога пропускается */
+    private boolean isStorageDirectoryInUse() {
+        var sample = fileRepository.findAllAfterId(0, batchSize);
+        var inUse = sample.isEmpty() || sample.stream()
+                .anyMatch(file -> Path.of(file.getPath()).startsWith(layout.getStorageDirectory()));
+        if (!inUse) {
+            LOG.warn("Строки files не указывают в каталог {}, обход каталога пропущен", layout.getStorageDirectory());
+        }
+        return inUse;
+    }
+
+    /* Миниатюра принадлежит оригиналу: она лишняя, только если нет строки ни у неё самой
+    (загруженный файл может называться как миниатюра), ни у оригинала */
+    private Blob toBlob(Path file) {
+        var path = file.toString();
+        return new Blob(path, thumbnails.getOriginalPath(path).orElse(path));
+    }
+
+    private void collectBlobBatch(List<Blob> batch, Instant cutoff, Result result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        var paths = new HashSet<String>();
+        for (var blob : batch) {
+            paths.add(blob.path());
+            paths.add(blob.owner());
+        }
+        var existing = new HashSet<>(fileRepository.findExistingPaths(paths));
+        for (var blob : batch) {
+            if (!existing.contains(blob.path()) && !existing.contains(blob.owner())) {
+                var freed = deleteOrphan(blob, cutoff);
+                if (freed >= 0) {
+                    result.blobs++;
+                    result.bytes += freed;
+                }
+            }
+        }
+    }
+
+    /* под замком владельца ссылки перепроверяются: пока шёл обход, на блоб могла появиться строка */
+    private long deleteOrphan(Blob blob, Instant cutoff) {
+        synchronized (fileService.lockFor(blob.owner())) {
+            if (fileRepository.countByPath(blob.path()) > 0 || fileRepository.countByPath(blob.owner()) > 0) {
+                return -1;
+            }
+            try {
+                var file = Path.of(blob.path());
+                if (!Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                    return -1;
+                }
+                var size = Files.size(file);
+                Files.delete(file);
+                return size;
+            } catch (NoSuchFileException e) {
+                return -1;
+            } catch (IOException e) {
+                LOG.warn("Не удалось удалить лишний файл {}", blob.path(), e);
+                return -1;
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(batchPause.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Сборка мусора прервана", e);
+        }
+    }
+
+    public long getRuns() {
+        return runs.get();
+    }
+
+    public long getReclaimedRows() {
+        return reclaimedRows.get();
+    }
+
+    public long getReclaimedBlobs() {
+        return reclaimedBlobs.get();
+    }
+
+    public long getReclaimedBytes() {
+        return reclaimedBytes.get();
+    }
+
+    public long getLastRunMillis() {
+        return lastRunMillis.get();
+    }
+
+    private record Blob(String path, String owner) {
+    }
+
+    private static class Result {
+
+        private long rows;
+
+        private long blobs;
+
+        private long bytes;
+    }
+}
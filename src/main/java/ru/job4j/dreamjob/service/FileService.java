@@ -1,6 +1,7 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.FileResourceDto;
 import ru.job4j.dreamjob.model.File;
 
 import java.util.Optional;
@@ -9,7 +10,9 @@ public interface FileService {
 
     File save(FileDto fileDto);
 
-    Optional<FileDto> getFileById(int id);
+    Optional<FileResourceDto> getFileResourceById(int id);
+
+    Optional<FileResourceDto> getFileResourceById(int id, int width);
 
     void deleteById(int id);
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/* Раскладка файлов по каталогам хранилища. При levels = 0 все файлы лежат в одном каталоге,
+при levels = 2 файл abcdef... кладётся в storage/ab/cd/abcdef...
+Имена файлов в хранилище начинаются со случайного UUID или с SHA-256 содержимого,
+поэтому их префикс равномерно распределяет файлы по подкаталогам */
+@Component
+public class FileStorageLayout {
+
+    public static final int MAX_LEVELS = 4;
+
+    private static final int CHARS_PER_LEVEL = 2;
+
+    private final Path storageDirectory;
+
+    private final int levels;
+
+    public FileStorageLayout(@Value("${file.directory}") String storageDirectory,
+                             @Value("${file.directory.levels:0}") int levels) {
+        if (levels < 0 || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("file.directory.levels must be between 0 and " + MAX_LEVELS);
+        }
+        this.storageDirectory = Path.of(storageDirectory);
+        this.levels = levels;
+    }
+
+    public Path getStorageDirectory() {
+        return storageDirectory;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public Path resolve(String fileName) {
+        var directory = storageDirectory;
+        var prefixLevels = Math.min(levels, fileName.length() / CHARS_PER_LEVEL);
+        for (int level = 0; level < prefixLevels; level++) {
+            var start = level * CHARS_PER_LEVEL;
+            directory = directory.resolve(fileName.substring(start, start + CHARS_PER_LEVEL));
+        }
+        return directory.resolve(fileName);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/* Одноразовый перенос файлов в раскладку file.directory.levels.
+Включается свойством file.directory.migrate=true на один запуск приложения */
+@Component
+@ConditionalOnProperty(name = "file.directory.migrate", havingValue = "true")
+public class FileStorageMigration implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileStorageMigration.class.getName());
+
+    private final SimpleFileService fileService;
+
+    public FileStorageMigration(SimpleFileService fileService) {
+        this.fileService = fileService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var moved = fileService.migrateToLayout();
+        LOG.info("Перенесено файлов в новую раскладку каталогов: {}", moved);
+    }
+}
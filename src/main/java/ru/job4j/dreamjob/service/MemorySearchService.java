@@ -0,0 +1,165 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+import ru.job4j.dreamjob.search.InvertedIndex;
+import ru.job4j.dreamjob.search.Tokenizer;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/* Поиск по вакансиям (название и описание) и резюме (имя и описание) по инвертированным индексам в памяти.
+Индексы строятся после запуска приложения порциями по search.build.batch-size записей, пока они строятся,
+поиск находит только уже прочитанное. Изменения от сервисов вакансий и резюме применяются сразу, в том числе
+во время построения: запись, изменённая или удалённая после чтения её порции, построением уже не перезаписывается.
+Курсор страницы - смещение в списке результатов. Включается search.mode=memory (по умолчанию) */
+@Service
+@ConditionalOnProperty(name = "search.mode", havingValue = "memory", matchIfMissing = true)
+public class MemorySearchService implements SearchService, ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MemorySearchService.class.getName());
+
+    private final VacancyRepository vacancyRepository;
+
+    private final CandidateRepository candidateRepository;
+
+    private final int batchSize;
+
+    private final InvertedIndex vacancies;
+
+    private final InvertedIndex candidates;
+
+    private final BuildGuard vacancyBuild = new BuildGuard();
+
+    private final BuildGuard candidateBuild = new BuildGuard();
+
+    public MemorySearchService(VacancyRepository sql2oVacancyRepository,
+                               CandidateRepository sql2oCandidateRepository,
+                               @Value("${search.build.batch-size:1000}") int batchSize) {
+        this.vacancyRepository = sql2oVacancyRepository;
+        this.candidateRepository = sql2oCandidateRepository;
+        this.batchSize = batchSize;
+        var tokenizer = new Tokenizer();
+        this.vacancies = new InvertedIndex(tokenizer);
+        this.candidates = new InvertedIndex(tokenizer);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var start = System.currentTimeMillis();
+        load(vacancyRepository::findAllAfterId, Vacancy::getId, vacancyBuild, this::put);
+        load(candidateRepository::findAllAfterId, Candidate::getId, candidateBuild, this::put);
+        LOG.info("Поисковые индексы построены за {} мс: вакансий {}, резюме {}",
+                System.currentTimeMillis() - start, vacancies.size(), candidates.size());
+    }
+
+    private <T> void load(Batches<T> batches, ToIntFunction<T> idOf, BuildGuard guard, Consumer<T> index) {
+        var lastId = 0;
+        Collection<T> batch;
+        do {
+            batch = batches.findAllAfterId(lastId, batchSize);
+            for (var item : batch) {
+                lastId = idOf.applyAsInt(item);
+                guard.loaded(lastId, () -> index.accept(item));
+            }
+        } while (batch.size() == batchSize);
+        guard.finish();
+    }
+
+    @Override
+    public Page<SearchHit> searchVacancies(String query, String cursor, int size) {
+        return search(vacancies, query, cursor, size);
+    }
+
+    @Override
+    public Page<SearchHit> searchCandidates(String query, String cursor, int size) {
+        return search(candidates, query, cursor, size);
+    }
+
+    private Page<SearchHit> search(InvertedIndex index, String query, String cursor, int size) {
+        var pageSize = Page.limitSize(size);
+        var offset = Page.parseOffset(cursor);
+        return Page.atOffset(index.search(query, offset, pageSize + 1), pageSize, offset);
+    }
+
+    @Override
+    public void index(Vacancy vacancy) {
+        vacancyBuild.live(vacancy.getId(), () -> put(vacancy));
+    }
+
+    @Override
+    public void index(Candidate candidate) {
+        candidateBuild.live(candidate.getId(), () -> put(candidate));
+    }
+
+    @Override
+    public void removeVacancy(int id) {
+        vacancyBuild.live(id, () -> vacancies.remove(id));
+    }
+
+    @Override
+    public void removeCandidate(int id) {
+        candidateBuild.live(id, () -> candidates.remove(id));
+    }
+
+    private void put(Vacancy vacancy) {
+        vacancies.put(vacancy.getId(), vacancy.getTitle(), vacancy.getTitle(), vacancy.getDescription());
+    }
+
+    private void put(Candidate candidate) {
+        candidates.put(candidate.getId(), candidate.getName(), candidate.getName(), candidate.getDescription());
+    }
+
+    /* Пока индекс строится, запоминает id, которые изменили или удалили сервисы, и не даёт построению
+    записать поверх них версию из уже прочитанной порции. Проверка и запись идут под одним замком,
+    иначе изменение могло бы проскочить между ними. После построения замок больше не берётся */
+    private static final class BuildGuard {
+
+        private final Set<Integer> changed = new HashSet<>();
+
+        private volatile boolean building = true;
+
+        void live(int id, Runnable change) {
+            if (!building) {
+                change.run();
+                return;
+            }
+            synchronized (this) {
+                if (building) {
+                    changed.add(id);
+                }
+                change.run();
+            }
+        }
+
+        synchronized void loaded(int id, Runnable change) {
+            if (!changed.contains(id)) {
+                change.run();
+            }
+        }
+
+        synchronized void finish() {
+            building = false;
+            changed.clear();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Batches<T> {
+        Collection<T> findAllAfterId(int id, int limit);
+    }
+}
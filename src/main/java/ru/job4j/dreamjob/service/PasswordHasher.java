@@ -0,0 +1,111 @@
+package ru.job4j.dreamjob.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/* Хэширование и проверка паролей bcrypt. Каждая проверка намеренно стоит десятки миллисекунд процессора,
+поэтому она выполняется не в потоке запроса, а в отдельном пуле фиксированного размера с ограниченной очередью.
+Если очередь заполнена или ответ не дождались за timeout, бросается PasswordHasherBusyException,
+и вход отклоняется сразу, а не копит ждущие потоки Tomcat.
+Пароли, сохранённые до перехода на bcrypt открытым текстом, переводятся в хэши один раз PasswordMigration.
+Сравнение с открытым текстом оставлено только за флагом security.password.legacy-plaintext на время до миграции;
+и с флагом, и без него такая проверка стоит столько же, сколько bcrypt, чтобы по времени ответа
+нельзя было узнать, у каких учёток пароль ещё не хэширован */
+@Component
+public class PasswordHasher {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    private final BCryptPasswordEncoder encoder;
+
+    private final ThreadPoolExecutor executor;
+
+    private final long timeoutMillis;
+
+    private final boolean legacyPlaintext;
+
+    /* хэш для несуществующего email: проверка по нему стоит столько же, сколько настоящая,
+    и по времени ответа нельзя узнать, зарегистрирован ли адрес */
+    private final String dummyHash;
+
+    public PasswordHasher(@Value("${security.password.bcrypt-strength:10}") int strength,
+                          @Value("${security.password.threads:2}") int threads,
+                          @Value("${security.password.queue:32}") int queueCapacity,
+                          @Value("${security.password.timeout:PT2S}") Duration timeout,
+                          @Value("${security.password.legacy-plaintext:false}") boolean legacyPlaintext) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-"));
+        this.timeoutMillis = timeout.toMillis();
+        this.legacyPlaintext = legacyPlaintext;
+        this.dummyHash = encoder.encode("dummy-password");
+    }
+
+    public String hash(String password) {
+        return call(() -> encoder.encode(password));
+    }
+
+    public boolean matches(String password, String stored) {
+        if (stored == null) {
+            call(() -> encoder.matches(password, dummyHash));
+            return false;
+        }
+        if (isPlaintext(stored)) {
+            call(() -> encoder.matches(password, dummyHash));
+            return legacyPlaintext && MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        return call(() -> encoder.matches(password, stored));
+    }
+
+    /* открытый текст или хэш с меньшей стоимостью, чем настроена сейчас */
+    public boolean needsRehash(String stored) {
+        return isPlaintext(stored) || encoder.upgradeEncoding(stored);
+    }
+
+    /* пароль, сохранённый до перехода на bcrypt */
+    public boolean isPlaintext(String stored) {
+        return stored != null && !BCRYPT.matcher(stored).matches();
+    }
+
+    private <T> T call(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHasherBusyException("Очередь проверки паролей заполнена", e);
+        }
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new PasswordHasherBusyException("Проверка пароля не уложилась в отведённое время", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PasswordHasherBusyException("Проверка пароля прервана", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Ошибка при проверке пароля", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.job4j.dreamjob.service;
+
+/* пул проверки паролей перегружен: запрос нужно отклонить с 429 и предложить повторить позже */
+public class PasswordHasherBusyException extends RuntimeException {
+
+    public PasswordHasherBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,60 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.repository.UserRepository;
+
+import java.util.Collection;
+
+/* Одноразовый перевод паролей, сохранённых открытым текстом, в хэши bcrypt. Строки users читаются
+порциями по id, и каждый пароль не в формате bcrypt перезаписывается хэшем через PasswordHasher.
+Включается свойством security.password.migrate=true на один запуск приложения, повторный запуск
+ничего не меняет. После миграции security.password.legacy-plaintext можно выключить */
+@Component
+@ConditionalOnProperty(name = "security.password.migrate", havingValue = "true")
+public class PasswordMigration implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordMigration.class.getName());
+
+    private final UserRepository userRepository;
+
+    private final PasswordHasher passwordHasher;
+
+    private final int batchSize;
+
+    public PasswordMigration(UserRepository sql2oUserRepository, PasswordHasher passwordHasher,
+                             @Value("${security.password.migration-batch-size:500}") int batchSize) {
+        this.userRepository = sql2oUserRepository;
+        this.passwordHasher = passwordHasher;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        var hashed = migrate();
+        LOG.info("Паролей переведено из открытого текста в bcrypt: {}", hashed);
+    }
+
+    public int migrate() {
+        var hashed = 0;
+        var lastId = 0;
+        Collection<User> batch;
+        do {
+            batch = userRepository.findAllAfterId(lastId, batchSize);
+            for (var user : batch) {
+                lastId = user.getId();
+                if (passwordHasher.isPlaintext(user.getPassword())
+                        && userRepository.updatePassword(user.getId(), passwordHasher.hash(user.getPassword()))) {
+                    hashed++;
+                }
+            }
+        } while (batch.size() == batchSize);
+        return hashed;
+    }
+}
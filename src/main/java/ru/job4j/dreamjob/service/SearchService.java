@@ -0,0 +1,20 @@
+package ru.job4j.dreamjob.service;
+
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.Vacancy;
+
+public interface SearchService {
+    Page<SearchHit> searchVacancies(String query, String cursor, int size);
+
+    Page<SearchHit> searchCandidates(String query, String cursor, int size);
+
+    void index(Vacancy vacancy);
+
+    void index(Candidate candidate);
+
+    void removeVacancy(int id);
+
+    void removeCandidate(int id);
+}
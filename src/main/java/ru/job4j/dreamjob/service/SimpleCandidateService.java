@@ -2,6 +2,10 @@ package ru.job4j.dreamjob.service;
 
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.repository.CandidateRepository;
 
@@ -15,16 +19,26 @@ public class SimpleCandidateService implements CandidateService {
 
     private final FileService fileService;
 
+    private final EntityCache<Candidate> cache;
+
+    private final SearchService searchService;
+
     public SimpleCandidateService(CandidateRepository sql2oCandidateRepository,
-                                  FileService fileService) {
+                                  FileService fileService,
+                                  EntityCache<Candidate> candidateCache,
+                                  SearchService searchService) {
         this.candidateRepository = sql2oCandidateRepository;
         this.fileService = fileService;
+        this.cache = candidateCache;
+        this.searchService = searchService;
     }
 
     @Override
     public Candidate save(Candidate candidate, FileDto fileDto) {
         saveNewFile(candidate, fileDto);
-        return candidateRepository.save(candidate);
+        var saved = candidateRepository.save(candidate);
+        searchService.index(saved);
+        return saved;
     }
 
     private void saveNewFile(Candidate candidate, FileDto image) {
@@ -37,31 +51,52 @@ public class SimpleCandidateService implements CandidateService {
         var fileOptional = findById(id);
         if (fileOptional.isPresent()) {
             candidateRepository.deleteById(id);
+            cache.invalidate(id);
+            searchService.removeCandidate(id);
             fileService.deleteById(fileOptional.get().getFileId());
         }
     }
 
     @Override
     public boolean update(Candidate candidate, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
+        var isNewFileEmpty = image.getSize() == 0;
         if (isNewFileEmpty) {
-            return candidateRepository.update(candidate);
+            var isUpdated = candidateRepository.update(candidate);
+            afterUpdate(candidate, isUpdated);
+            return isUpdated;
         }
         /* если передан новый не пустой файл, то старый удаляем, а новый сохраняем */
         var oldFileId = candidate.getFileId();
         saveNewFile(candidate, image);
         var isUpdated = candidateRepository.update(candidate);
+        afterUpdate(candidate, isUpdated);
         fileService.deleteById(oldFileId);
         return isUpdated;
     }
 
+    private void afterUpdate(Candidate candidate, boolean isUpdated) {
+        cache.invalidate(candidate.getId());
+        if (isUpdated) {
+            searchService.index(candidate);
+        }
+    }
+
+    /* повторные просмотры и удаление берут запись из кэша, записи инвалидируют его после изменения базы */
     @Override
     public Optional<Candidate> findById(int id) {
-        return candidateRepository.findById(id);
+        return cache.get(id, candidateRepository::findById);
     }
 
     @Override
     public Collection<Candidate> findAll() {
         return candidateRepository.findAll();
     }
+
+    /* неверный или устаревший курсор из ссылки открывает первую страницу */
+    @Override
+    public Page<CandidateSummary> findPage(String cursor, ListFilter filter, int size) {
+        var pageSize = Page.limitSize(size);
+        var fetched = candidateRepository.findPage(PageCursor.parse(cursor).orElse(null), filter, pageSize + 1);
+        return Page.of(fetched, pageSize, candidate -> new PageCursor(candidate.getCreationDate(), candidate.getId()));
+    }
 }
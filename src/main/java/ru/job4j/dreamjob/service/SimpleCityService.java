@@ -5,6 +5,7 @@ import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.repository.CityRepository;
 
 import java.util.Collection;
+import java.util.Optional;
 
 @Service
 public class SimpleCityService implements CityService {
@@ -19,4 +20,11 @@ public class SimpleCityService implements CityService {
     public Collection<City> findAll() {
         return cityRepository.findAll();
     }
+
+    @Override
+    public Optional<City> findById(int id) {
+        return cityRepository.findAll().stream()
+                .filter(city -> city.getId() == id)
+                .findFirst();
+    }
 }
@@ -1,90 +1,335 @@
 package ru.job4j.dreamjob.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.FileResourceDto;
+import ru.job4j.dreamjob.metrics.MetricsRegistry;
+import ru.job4j.dreamjob.metrics.TimedInputStream;
 import ru.job4j.dreamjob.model.File;
 import ru.job4j.dreamjob.repository.FileRepository;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class SimpleFileService implements FileService {
 
+    public static final String UUID_MODE = "uuid";
+
+    public static final String CONTENT_MODE = "content";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private static final int MIGRATION_BATCH_SIZE = 1000;
+
     private final FileRepository fileRepository;
 
-    private final String storageDirectory;
+    private final FileStorageLayout layout;
+
+    private final boolean contentAddressed;
+
+    private final ThumbnailGenerator thumbnails;
+
+    private final MetricsRegistry metrics;
+
+    /* сохранение и удаление одного и того же блоба идут под одним замком,
+    иначе удаление последней ссылки может стереть блоб, на который только что сослалась новая запись */
+    private final Object[] locks = new Object[LOCK_STRIPES];
 
+    public SimpleFileService(FileRepository sql2oFileRepository, String storageDirectory) {
+        this(sql2oFileRepository, new FileStorageLayout(storageDirectory, 0), UUID_MODE, ThumbnailGenerator.disabled());
+    }
+
+    public SimpleFileService(FileRepository sql2oFileRepository,
+                             FileStorageLayout layout,
+                             String storageMode,
+                             ThumbnailGenerator thumbnails) {
+        this(sql2oFileRepository, layout, storageMode, thumbnails, new MetricsRegistry());
+    }
+
+    @Autowired
     public SimpleFileService(FileRepository sql2oFileRepository,
-                             @Value("${file.directory}") String storageDirectory) {
+                             FileStorageLayout layout,
+                             @Value("${file.storage.mode:uuid}") String storageMode,
+                             ThumbnailGenerator thumbnails,
+                             MetricsRegistry metrics) {
         this.fileRepository = sql2oFileRepository;
-        this.storageDirectory = storageDirectory;
-        createStorageDirectory(storageDirectory);
+        this.layout = layout;
+        this.contentAddressed = CONTENT_MODE.equalsIgnoreCase(storageMode);
+        this.thumbnails = thumbnails;
+        this.metrics = metrics;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+        createDirectories(layout.getStorageDirectory());
     }
 
-    private void createStorageDirectory(String path) {
+    private void createDirectories(Path path) {
         try {
-            Files.createDirectories(Path.of(path));
+            Files.createDirectories(path);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
     }
 
+    /* Загрузка не держится в памяти: содержимое потоком пишется во временный файл в каталоге
+    хранилища, по ходу считаются размер и SHA-256, а затем файл атомарно переименовывается
+    в итоговый путь. Временный файл в том же каталоге, что и хранилище, поэтому rename атомарен */
     @Override
     public File save(FileDto fileDto) {
-        var path = getNewFilePath(fileDto.getName());
-        writeFileBytes(path, fileDto.getContent());
-        return fileRepository.save(new File(fileDto.getName(), path));
+        var file = writeAndSave(fileDto);
+        thumbnails.submit(file.getPath());
+        return file;
+    }
+
+    private File writeAndSave(FileDto fileDto) {
+        var tempPath = layout.getStorageDirectory().resolve(".upload-" + UUID.randomUUID());
+        try {
+            var written = writeContent(tempPath, fileDto);
+            if (contentAddressed) {
+                return saveByContent(fileDto.getName(), tempPath, written);
+            }
+            var path = getNewFilePath(fileDto.getName());
+            moveFile(tempPath, Path.of(path));
+            return fileRepository.save(new File(fileDto.getName(), path, written.hash(), written.size()));
+        } finally {
+            deleteFile(tempPath.toString());
+        }
     }
 
     private String getNewFilePath(String sourceName) {
-        return storageDirectory + java.io.File.separator + UUID.randomUUID() + sourceName;
+        var path = layout.resolve(UUID.randomUUID() + sourceName);
+        createDirectories(path.getParent());
+        return path.toString();
+    }
+
+    /* Режим хранения по содержимому: одинаковое содержимое хранится одним блобом с именем по хэшу,
+    на который ссылаются все строки files с этим path */
+    private File saveByContent(String name, Path tempPath, WrittenContent written) {
+        var path = layout.resolve(written.hash()).toString();
+        synchronized (lockFor(path)) {
+            if (!Files.exists(Path.of(path))) {
+                moveFile(tempPath, Path.of(path));
+            }
+            return fileRepository.save(new File(name, path, written.hash(), written.size()));
+        }
     }
 
-    private void writeFileBytes(String path, byte[] content) {
+    private void moveFile(Path source, Path target) {
+        var start = System.nanoTime();
         try {
-            Files.write(Path.of(path), content);
+            createDirectories(target.getParent());
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            metrics.getFileIo().labels("move").record(System.nanoTime() - start);
+        }
+    }
+
+    Object lockFor(String path) {
+        return locks[stripeOf(path)];
+    }
+
+    private int stripeOf(String path) {
+        return Math.floorMod(path.hashCode(), locks.length);
+    }
+
+    /* размер и хэш содержимого считаются в том же проходе, что и запись на диск */
+    private WrittenContent writeContent(Path path, FileDto fileDto) {
+        var digest = createDigest();
+        var start = System.nanoTime();
+        try (var in = fileDto.getContent().getInputStream();
+             var out = new DigestOutputStream(Files.newOutputStream(path), digest)) {
+            var size = in.transferTo(out);
+            metrics.getFileIoBytes().labels("write").add(size);
+            return new WrittenContent(HexFormat.of().formatHex(digest.digest()), size);
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            metrics.getFileIo().labels("write").record(System.nanoTime() - start);
         }
     }
 
+    private MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /* файл не читается целиком: FileSystemResource открывает поток только при записи ответа,
+    и копирование идёт через буфер фиксированного размера */
     @Override
-    public Optional<FileDto> getFileById(int id) {
+    public Optional<FileResourceDto> getFileResourceById(int id) {
         var fileOptional = fileRepository.findById(id);
         if (fileOptional.isEmpty()) {
             return Optional.empty();
         }
-        var content = readFileAsBytes(fileOptional.get().getPath());
-        return Optional.of(new FileDto(fileOptional.get().getName(), content));
+        var file = fileOptional.get();
+        return Optional.of(new FileResourceDto(file.getName(), timedResource(Path.of(file.getPath())),
+                file.getHash(), file.getCreationDate()));
     }
 
-    private byte[] readFileAsBytes(String path) {
-        try {
-            return Files.readAllBytes(Path.of(path));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /* Отдаёт копию нужной ширины, если она уже построена. У копии свой ETag и имя .jpg.
+    Пока копии нет, отдаётся оригинал с пометкой, что кэшировать его надолго нельзя, и копия ставится в очередь.
+    Если копии этой ширины не будет (ширина больше настроенных, файл не картинка), оригинал кэшируется как обычно */
+    @Override
+    public Optional<FileResourceDto> getFileResourceById(int id, int width) {
+        var fileOptional = fileRepository.findById(id);
+        if (fileOptional.isEmpty()) {
+            return Optional.empty();
         }
+        var file = fileOptional.get();
+        var derivative = thumbnails.find(file.getPath(), width);
+        if (derivative.isPresent()) {
+            var derivativeName = derivative.get().getFileName().toString();
+            var suffix = derivativeName.substring(derivativeName.lastIndexOf(".w"));
+            return Optional.of(new FileResourceDto(file.getName() + suffix, timedResource(derivative.get()),
+                    file.getHash() == null ? null : file.getHash() + suffix, file.getCreationDate()));
+        }
+        var original = new FileResourceDto(file.getName(), timedResource(Path.of(file.getPath())),
+                file.getHash(), file.getCreationDate());
+        original.setCacheable(!thumbnails.expect(file.getPath(), width));
+        return Optional.of(original);
+    }
+
+    /* чтение замеряется по времени внутри read, пока ответ отдаётся клиенту; поток открывает Spring MVC */
+    private FileSystemResource timedResource(Path path) {
+        return new FileSystemResource(path) {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return new TimedInputStream(super.getInputStream(),
+                        metrics.getFileIo().labels("read"), metrics.getFileIoBytes().labels("read"));
+            }
+        };
     }
 
+    /* блоб удаляется только вместе с последней строкой files, которая на него ссылается */
     @Override
     public void deleteById(int id) {
         var fileOptional = fileRepository.findById(id);
         if (fileOptional.isPresent()) {
-            deleteFile(fileOptional.get().getPath());
-            fileRepository.deleteById(id);
+            var path = fileOptional.get().getPath();
+            synchronized (lockFor(path)) {
+                fileRepository.deleteById(id);
+                if (fileRepository.countByPath(path) == 0) {
+                    deleteBlob(path);
+                }
+            }
+        }
+    }
+
+    /* Удаляет строку files, если на неё никто не ссылается, а блоб - если это была последняя ссылка.
+    Используется сборщиком мусора: строка, на которую успели сослаться, остаётся на месте.
+    Возвращает число освобождённых байт или -1, если строка не удалена */
+    long deleteIfUnreferenced(File file) {
+        synchronized (lockFor(file.getPath())) {
+            if (!fileRepository.deleteByIdIfUnreferenced(file.getId())) {
+                return -1;
+            }
+            return fileRepository.countByPath(file.getPath()) == 0 ? deleteBlob(file.getPath()) : 0;
         }
     }
 
-    private void deleteFile(String path) {
+    /* блоб удаляется вместе со своими миниатюрами */
+    long deleteBlob(String path) {
+        var freed = deleteFile(path);
+        for (var derivative : thumbnails.getDerivativePaths(path)) {
+            freed += deleteFile(derivative.toString());
+        }
+        return freed;
+    }
+
+    private long deleteFile(String path) {
+        var start = System.nanoTime();
         try {
-            Files.deleteIfExists(Path.of(path));
+            var file = Path.of(path);
+            var size = Files.size(file);
+            Files.deleteIfExists(file);
+            return size;
+        } catch (NoSuchFileException e) {
+            return 0;
         } catch (IOException e) {
             throw new RuntimeException(e);
+        } finally {
+            metrics.getFileIo().labels("delete").record(System.nanoTime() - start);
+        }
+    }
+
+    /* Переносит уже сохранённые файлы в текущую раскладку каталогов и переписывает files.path.
+    Перенос идёт пачками по id, под тем же замком, что и удаление, и его можно безопасно
+    запускать повторно: уже перенесённые файлы пропускаются */
+    public int migrateToLayout() {
+        var moved = 0;
+        var lastId = 0;
+        var batch = fileRepository.findAllAfterId(lastId, MIGRATION_BATCH_SIZE);
+        while (!batch.isEmpty()) {
+            var paths = batch.stream().map(File::getPath).distinct().toList();
+            for (var path : paths) {
+                if (migrateFile(path)) {
+                    moved++;
+                }
+            }
+            lastId = batch.stream().mapToInt(File::getId).max().getAsInt();
+            batch = fileRepository.findAllAfterId(lastId, MIGRATION_BATCH_SIZE);
         }
+        return moved;
+    }
+
+    private boolean migrateFile(String path) {
+        var source = Path.of(path);
+        var target = layout.resolve(source.getFileName().toString());
+        if (source.equals(target) || !Files.exists(source) && !Files.exists(target)) {
+            return false;
+        }
+        /* блокируются оба пути, всегда в порядке номеров полос, чтобы встречные переносы не зациклились */
+        var first = Math.min(stripeOf(path), stripeOf(target.toString()));
+        var second = Math.max(stripeOf(path), stripeOf(target.toString()));
+        synchronized (locks[first]) {
+            synchronized (locks[second]) {
+                if (Files.exists(target)) {
+                    deleteFile(path);
+                } else {
+                    moveFile(source, target);
+                }
+                moveDerivatives(path, target.toString());
+                fileRepository.updatePath(path, target.toString());
+            }
+        }
+        return true;
+    }
+
+    /* миниатюры лежат рядом с оригиналом и переезжают вместе с ним */
+    private void moveDerivatives(String oldPath, String newPath) {
+        var sources = thumbnails.getDerivativePaths(oldPath);
+        var targets = thumbnails.getDerivativePaths(newPath);
+        for (int i = 0; i < sources.size(); i++) {
+            if (!Files.exists(sources.get(i))) {
+                continue;
+            }
+            if (Files.exists(targets.get(i))) {
+                deleteFile(sources.get(i).toString());
+            } else {
+                moveFile(sources.get(i), targets.get(i));
+            }
+        }
+    }
+
+    private record WrittenContent(String hash, long size) {
     }
-}
\ No newline at end of file
+}
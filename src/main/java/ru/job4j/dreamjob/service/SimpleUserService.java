@@ -11,17 +11,37 @@ public class SimpleUserService implements UserService {
 
     private final UserRepository sql2oUserRepository;
 
-    public SimpleUserService(UserRepository sql2oUserRepository) {
+    private final PasswordHasher passwordHasher;
+
+    public SimpleUserService(UserRepository sql2oUserRepository, PasswordHasher passwordHasher) {
         this.sql2oUserRepository = sql2oUserRepository;
+        this.passwordHasher = passwordHasher;
     }
 
     @Override
     public Optional<User> save(User user) {
-        return sql2oUserRepository.save(user);
+        user.setPassword(passwordHasher.hash(user.getPassword()));
+        return sql2oUserRepository.save(user).map(this::withoutPassword);
     }
 
+    /* хэш с устаревшей стоимостью (или открытый текст, пока включён security.password.legacy-plaintext)
+    после успешного входа перезаписывается хэшем с текущими настройками */
     @Override
     public Optional<User> findByEmailAndPassword(String email, String password) {
-        return sql2oUserRepository.findByEmailAndPassword(email, password);
+        var user = sql2oUserRepository.findByEmail(email);
+        var stored = user.map(User::getPassword).orElse(null);
+        if (!passwordHasher.matches(password, stored)) {
+            return Optional.empty();
+        }
+        if (passwordHasher.needsRehash(stored)) {
+            sql2oUserRepository.updatePassword(user.get().getId(), passwordHasher.hash(password));
+        }
+        return user.map(this::withoutPassword);
+    }
+
+    /* хэш пароля не уходит дальше сервиса и не попадает в сессию */
+    private User withoutPassword(User user) {
+        user.setPassword(null);
+        return user;
     }
 }
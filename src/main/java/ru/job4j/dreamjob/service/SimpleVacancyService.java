@@ -2,6 +2,10 @@ package ru.job4j.dreamjob.service;
 
 import org.springframework.stereotype.Service;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.dto.PageCursor;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.repository.VacancyRepository;
 
@@ -15,16 +19,26 @@ public class SimpleVacancyService implements VacancyService {
 
     private final FileService fileService;
 
+    private final EntityCache<Vacancy> cache;
+
+    private final SearchService searchService;
+
     public SimpleVacancyService(VacancyRepository sql2oVacancyRepository,
-                                FileService fileService) {
+                                FileService fileService,
+                                EntityCache<Vacancy> vacancyCache,
+                                SearchService searchService) {
         this.vacancyRepository = sql2oVacancyRepository;
         this.fileService = fileService;
+        this.cache = vacancyCache;
+        this.searchService = searchService;
     }
 
     @Override
     public Vacancy save(Vacancy vacancy, FileDto image) {
         saveNewFile(vacancy, image);
-        return vacancyRepository.save(vacancy);
+        var saved = vacancyRepository.save(vacancy);
+        searchService.index(saved);
+        return saved;
     }
 
     private void saveNewFile(Vacancy vacancy, FileDto image) {
@@ -38,6 +52,8 @@ public class SimpleVacancyService implements VacancyService {
         var fileOptional = findById(id);
         if (fileOptional.isPresent()) {
             vacancyRepository.deleteById(id);
+            cache.invalidate(id);
+            searchService.removeVacancy(id);
             fileService.deleteById(fileOptional.get().getFileId());
         }
     }
@@ -45,25 +61,44 @@ public class SimpleVacancyService implements VacancyService {
     /* При сохранении и обновлении вакансии сохраняется связанный с ней файл */
     @Override
     public boolean update(Vacancy vacancy, FileDto image) {
-        var isNewFileEmpty = image.getContent().length == 0;
+        var isNewFileEmpty = image.getSize() == 0;
         if (isNewFileEmpty) {
-            return vacancyRepository.update(vacancy);
+            var isUpdated = vacancyRepository.update(vacancy);
+            afterUpdate(vacancy, isUpdated);
+            return isUpdated;
         }
         /* если передан новый не пустой файл, то старый удаляем, а новый сохраняем */
         var oldFileId = vacancy.getFileId();
         saveNewFile(vacancy, image);
         var isUpdated = vacancyRepository.update(vacancy);
+        afterUpdate(vacancy, isUpdated);
         fileService.deleteById(oldFileId);
         return isUpdated;
     }
 
+    private void afterUpdate(Vacancy vacancy, boolean isUpdated) {
+        cache.invalidate(vacancy.getId());
+        if (isUpdated) {
+            searchService.index(vacancy);
+        }
+    }
+
+    /* повторные просмотры и удаление берут запись из кэша, записи инвалидируют его после изменения базы */
     @Override
     public Optional<Vacancy> findById(int id) {
-        return vacancyRepository.findById(id);
+        return cache.get(id, vacancyRepository::findById);
     }
 
     @Override
     public Collection<Vacancy> findAll() {
         return vacancyRepository.findAll();
     }
+
+    /* неверный или устаревший курсор из ссылки открывает первую страницу */
+    @Override
+    public Page<VacancySummary> findPage(String cursor, ListFilter filter, int size) {
+        var pageSize = Page.limitSize(size);
+        var fetched = vacancyRepository.findPage(PageCursor.parse(cursor).orElse(null), filter, pageSize + 1);
+        return Page.of(fetched, pageSize, vacancy -> new PageCursor(vacancy.getCreationDate(), vacancy.getId()));
+    }
 }
@@ -0,0 +1,194 @@
+package ru.job4j.dreamjob.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/* Фоновая генерация уменьшенных копий картинок фиксированной ширины.
+Копии лежат рядом с оригиналом: path.w320.jpg. Картинка уже нужной ширины не увеличивается,
+копия просто пересжимается в jpg. Пул потоков и очередь ограничены: если очередь заполнена,
+задача отбрасывается, и вместо копии просто отдаётся оригинал. Копия, которой нет при запросе
+(задачу отбросили, построение упало, файл сохранён до появления миниатюр), ставится в очередь заново,
+по одной задаче на файл. Файлы, которые не читаются как картинки, запоминаются и больше не ставятся */
+@Component
+public class ThumbnailGenerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThumbnailGenerator.class.getName());
+
+    private static final String FORMAT = "jpg";
+
+    private static final Pattern DERIVATIVE = Pattern.compile("(.+)\\.w\\d+\\." + FORMAT);
+
+    private final int[] widths;
+
+    private final ThreadPoolExecutor executor;
+
+    /* файлы, для которых задача уже в очереди или выполняется */
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    /* файлы, которые не удалось прочитать как картинку; живёт до перезапуска */
+    private final Set<String> notImages = ConcurrentHashMap.newKeySet();
+
+    public ThumbnailGenerator(@Value("${file.thumbnails.widths:160,320,640}") int[] widths,
+                              @Value("${file.thumbnails.threads:2}") int threads,
+                              @Value("${file.thumbnails.queue:100}") int queueCapacity) {
+        this.widths = Arrays.stream(widths).sorted().toArray();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("thumbnail-"));
+    }
+
+    public static ThumbnailGenerator disabled() {
+        return new ThumbnailGenerator(new int[0], 1, 1);
+    }
+
+    public void submit(String path) {
+        if (widths.length == 0 || notImages.contains(path) || !queued.add(path)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(path);
+                } finally {
+                    queued.remove(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.remove(path);
+            LOG.warn("Очередь генерации миниатюр заполнена, задача для {} отброшена", path);
+        }
+    }
+
+    /* Ждать ли копию этой ширины: false, если ширина больше всех настроенных или файл не картинка,
+    тогда оригинал можно кэшировать как обычно. Если копии нет, её построение ставится в очередь заново */
+    public boolean expect(String path, int width) {
+        if (notImages.contains(path) || Arrays.stream(widths).noneMatch(available -> available >= width)) {
+            return false;
+        }
+        if (find(path, width).isEmpty()) {
+            submit(path);
+        }
+        return true;
+    }
+
+    /* наименьшая готовая копия не уже запрошенной ширины; если её ещё нет - пусто */
+    public Optional<Path> find(String path, int width) {
+        for (var available : widths) {
+            if (available >= width) {
+                var derivative = getDerivativePath(path, available);
+                return Files.exists(derivative) ? Optional.of(derivative) : Optional.empty();
+            }
+        }
+        return Optional.empty();
+    }
+
+    public List<Path> getDerivativePaths(String path) {
+        return Arrays.stream(widths).mapToObj(width -> getDerivativePath(path, width)).toList();
+    }
+
+    /* путь оригинала для пути, похожего на миниатюру любой ширины, в том числе уже не настроенной */
+    public Optional<String> getOriginalPath(String path) {
+        var matcher = DERIVATIVE.matcher(path);
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private Path getDerivativePath(String path, int width) {
+        return Path.of(path + ".w" + width + "." + FORMAT);
+    }
+
+    private void generate(String path) {
+        var source = Path.of(path);
+        try {
+            var image = read(source);
+            if (image == null) {
+                notImages.add(path);
+                return;
+            }
+            for (var width : widths) {
+                var derivative = getDerivativePath(source.toString(), width);
+                if (!Files.exists(derivative)) {
+                    write(resize(image, Math.min(width, image.getWidth())), derivative);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Не удалось построить миниатюры для {}", source, e);
+        }
+    }
+
+    /* большая картинка читается с прореживанием пикселей: в память попадает примерно вдвое
+    больше точек, чем нужно самой широкой копии, а не весь многомегапиксельный оригинал */
+    private BufferedImage read(Path source) throws IOException {
+        try (var in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            var readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            var reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                var param = reader.getDefaultReadParam();
+                var step = Math.max(1, reader.getWidth(0) / (2 * widths[widths.length - 1]));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int width) {
+        var height = Math.max(1, (int) ((long) image.getHeight() * width / image.getWidth()));
+        var result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        var graphics = result.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return result;
+    }
+
+    /* копия пишется во временный файл и атомарно переименовывается, чтобы не отдать недописанную */
+    private void write(BufferedImage image, Path derivative) throws IOException {
+        var temp = derivative.resolveSibling(derivative.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            ImageIO.write(image, FORMAT, temp.toFile());
+            Files.move(temp, derivative, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
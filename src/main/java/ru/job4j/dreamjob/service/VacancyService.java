@@ -1,6 +1,9 @@
 package ru.job4j.dreamjob.service;
 
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.Vacancy;
 
 import java.util.Collection;
@@ -16,4 +19,6 @@ public interface VacancyService {
     Optional<Vacancy> findById(int id);
 
     Collection<Vacancy> findAll();
+
+    Page<VacancySummary> findPage(String cursor, ListFilter filter, int size);
 }
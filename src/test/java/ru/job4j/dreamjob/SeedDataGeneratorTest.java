@@ -0,0 +1,90 @@
+package ru.job4j.dreamjob;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import ru.job4j.dreamjob.service.FileStorageLayout;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeedDataGeneratorTest {
+
+    private static final String[] TABLES = {"vacancies", "candidates", "files", "users"};
+
+    private final BasicDataSource dataSource = new BasicDataSource();
+
+    private final long[] maxIds = new long[TABLES.length];
+
+    @BeforeEach
+    void rememberMaxIds() throws Exception {
+        var properties = new Properties();
+        try (var inputStream = SeedDataGeneratorTest.class.getClassLoader()
+                .getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        dataSource.setUrl(properties.getProperty("datasource.url"));
+        dataSource.setUsername(properties.getProperty("datasource.username"));
+        dataSource.setPassword(properties.getProperty("datasource.password"));
+        for (int i = 0; i < TABLES.length; i++) {
+            maxIds[i] = query("SELECT coalesce(max(id), 0) FROM " + TABLES[i]);
+        }
+    }
+
+    /* удаляются только строки, вставленные тестом, чтобы не мешать тестам репозиториев */
+    @AfterEach
+    void deleteGenerated() throws SQLException {
+        try (var connection = dataSource.getConnection(); var statement = connection.createStatement()) {
+            for (int i = 0; i < TABLES.length; i++) {
+                statement.executeUpdate("DELETE FROM " + TABLES[i] + " WHERE id > " + maxIds[i]);
+            }
+        }
+        dataSource.close();
+    }
+
+    private long query(String sql) throws SQLException {
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    @DisplayName("Генератор вставляет заданное число строк, и каждая строка files указывает на картинку на диске")
+    @Test
+    void whenGenerateThenRowsAndBlobsExist(@TempDir Path directory) throws Exception {
+        var generator = new SeedDataGenerator(dataSource, new FileStorageLayout(directory.toString(), 2), 7, 1);
+
+        generator.generate(5, 30, 20, 3);
+
+        assertThat(query("SELECT count(*) FROM users WHERE id > " + maxIds[3])).isEqualTo(5);
+        assertThat(query("SELECT count(*) FROM vacancies WHERE id > " + maxIds[0])).isEqualTo(30);
+        assertThat(query("SELECT count(*) FROM candidates WHERE id > " + maxIds[1])).isEqualTo(20);
+        assertThat(query("SELECT count(*) FROM files WHERE id > " + maxIds[2])).isEqualTo(50);
+        assertThat(query("SELECT count(DISTINCT file_id) FROM vacancies WHERE id > " + maxIds[0])).isEqualTo(30);
+        assertThat(query("SELECT count(*) FROM vacancies v LEFT JOIN files f ON f.id = v.file_id "
+                + "WHERE v.id > " + maxIds[0] + " AND f.id IS NULL")).isZero();
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT DISTINCT path, size FROM files WHERE id > " + maxIds[2])) {
+            while (resultSet.next()) {
+                assertThat(Files.size(Path.of(resultSet.getString(1)))).isEqualTo(resultSet.getLong(2));
+            }
+        }
+        try (var connection = dataSource.getConnection();
+             var statement = connection.createStatement();
+             var resultSet = statement.executeQuery("SELECT password FROM users WHERE id > " + maxIds[3])) {
+            resultSet.next();
+            assertThat(new BCryptPasswordEncoder().matches("password", resultSet.getString(1))).isTrue();
+        }
+    }
+}
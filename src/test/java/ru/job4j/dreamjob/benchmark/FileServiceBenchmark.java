@@ -0,0 +1,104 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+import ru.job4j.dreamjob.service.SimpleFileService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/* SimpleFileService.save и чтение сохранённого файла для разных размеров загрузки.
+save пишет поток во временный файл с подсчётом SHA-256 и переименовывает его; каждый сохранённый файл
+удаляется после вызова вне замера, чтобы каталог не рос. getFileById открывает ресурс и читает его
+до конца, как при отдаче ответа. Метаданные хранятся в MemoryFileRepository: меряется работа с диском,
+а не с базой */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileServiceBenchmark {
+
+    @Param({"1024", "102400", "1048576", "10485760"})
+    private int size;
+
+    private Path directory;
+
+    private SimpleFileService fileService;
+
+    private byte[] content;
+
+    private int storedId;
+
+    private File saved;
+
+    @Setup(Level.Trial)
+    public void createStorage() throws IOException {
+        directory = Files.createTempDirectory("file-benchmark");
+        fileService = new SimpleFileService(new MemoryFileRepository(), directory.toString());
+        content = new byte[size];
+        new Random(42).nextBytes(content);
+        storedId = fileService.save(new FileDto("stored.bin", content)).getId();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteSaved() {
+        if (saved != null) {
+            fileService.deleteById(saved.getId());
+            saved = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteStorage() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Benchmark
+    public File save() {
+        saved = fileService.save(new FileDto("upload.bin", content));
+        return saved;
+    }
+
+    @Benchmark
+    public long getFileById() throws IOException {
+        var resource = fileService.getFileResourceById(storedId).orElseThrow().getContent();
+        try (var in = resource.getInputStream()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(FileServiceBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
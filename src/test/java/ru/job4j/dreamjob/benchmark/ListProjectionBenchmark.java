@@ -0,0 +1,147 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* Страница списка вакансий: прежний SELECT * с описанием против выборки только показываемых колонок.
+База H2 подключается по TCP, как PostgreSQL по сети: строки передаются и декодируются драйвером,
+а не отдаются из памяти той же JVM. Запускается с профилировщиком GC: gc.alloc.rate.norm - байт,
+выделенных на одну страницу.
+Счётчик bytes - объём данных строк (символы по 2 байта и поля фиксированной длины), который
+приходит из базы на страницу; в секунду, поэтому на страницу это bytes / ops */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListProjectionBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final List<String> CITIES = List.of("Москва", "Санкт-Петербург", "Екатеринбург");
+
+    @Param({"100", "10000"})
+    private int descriptionLength;
+
+    private Server server;
+
+    private BasicDataSource dataSource;
+
+    private Sql2o sql2o;
+
+    private Sql2oVacancyRepository vacancyRepository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Traffic {
+
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void createVacancies() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        var configuration = new DatasourceConfiguration();
+        dataSource = configuration.connectionPool("jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:projection-"
+                + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "", "", new DatasourcePoolProperties());
+        sql2o = configuration.databaseClient(dataSource);
+        try (var connection = sql2o.open()) {
+            /* findPage берёт название города из cities, поэтому справочник нужен и здесь */
+            connection.createQuery("CREATE TABLE cities (id serial primary key, name varchar not null unique)")
+                    .executeUpdate();
+            for (var city : CITIES) {
+                connection.createQuery("INSERT INTO cities(name) VALUES (:name)").addParameter("name", city)
+                        .executeUpdate();
+            }
+            connection.createQuery("""
+                    CREATE TABLE vacancies (
+                        id serial primary key, title varchar not null, description varchar not null,
+                        creation_date timestamp not null, visible boolean not null, city_id int, file_id int
+                    )""").executeUpdate();
+            connection.createQuery("CREATE INDEX vacancies_creation_date_id_index ON vacancies(creation_date DESC, id DESC)")
+                    .executeUpdate();
+        }
+        vacancyRepository = new Sql2oVacancyRepository(sql2o);
+        var description = "Описание вакансии ".repeat(descriptionLength / 18 + 1).substring(0, descriptionLength);
+        var creationDate = LocalDateTime.now().withNano(0);
+        for (int i = 0; i < ROWS; i++) {
+            vacancyRepository.save(new Vacancy(0, "Java Developer " + i, description,
+                    creationDate.minusMinutes(i), i % 2 == 0, i % CITIES.size() + 1, 1));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        dataSource.close();
+        server.stop();
+    }
+
+    /* так страница читалась до появления VacancySummary */
+    @Benchmark
+    public List<Vacancy> selectAllColumns(Traffic traffic) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT * FROM vacancies ORDER BY creation_date DESC, id DESC LIMIT :limit");
+            query.addParameter("limit", PAGE_SIZE);
+            var vacancies = query.setColumnMappings(Vacancy.COLUMN_MAPPING).executeAndFetch(Vacancy.class);
+            for (var vacancy : vacancies) {
+                traffic.bytes += 2L * (vacancy.getTitle().length() + vacancy.getDescription().length()) + 4 + 8 + 1 + 4 + 4;
+            }
+            return vacancies;
+        }
+    }
+
+    @Benchmark
+    public List<VacancySummary> selectSummary(Traffic traffic) {
+        var vacancies = vacancyRepository.findPage(null, new ListFilter(), PAGE_SIZE);
+        for (var vacancy : vacancies) {
+            traffic.bytes += 2L * (vacancy.getTitle().length() + vacancy.getCityName().length()) + 4 + 8 + 1;
+        }
+        return vacancies;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ListProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,196 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.MemoryCandidateRepository;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+import ru.job4j.dreamjob.repository.MemoryVacancyRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* Memory-репозитории под конкурентной нагрузкой: в каждой группе три читающих потока и один пишущий
+над общим репозиторием. Для вакансий и кандидатов readMostly - чтение по id, listing - страница списка,
+которая сортирует все записи, пока писатель их обновляет; писатель только обновляет существующие записи.
+Для файлов читатели ищут по id или перебирают все записи в countByPath, а писатель сохраняет файл
+и сразу удаляет его. Так размер репозиториев не меняется за время замера.
+MemoryCityRepository - неизменяемый справочник из трёх городов без записи, а пользователи
+хранятся только в базе, поэтому здесь их нет */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MemoryRepositoryBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final ListFilter NO_FILTER = new ListFilter();
+
+    @Param({"1000", "100000"})
+    private int rows;
+
+    private MemoryVacancyRepository vacancyRepository;
+
+    private MemoryCandidateRepository candidateRepository;
+
+    private MemoryFileRepository fileRepository;
+
+    private LocalDateTime creationDate;
+
+    @Setup(Level.Trial)
+    public void createRepositories() {
+        vacancyRepository = new MemoryVacancyRepository();
+        candidateRepository = new MemoryCandidateRepository();
+        fileRepository = new MemoryFileRepository();
+        creationDate = LocalDateTime.now().withNano(0);
+        for (int i = 1; i <= rows; i++) {
+            vacancyRepository.save(new Vacancy(0, "Java Developer " + i, "Описание " + i,
+                    creationDate.minusMinutes(i), i % 2 == 0, 1 + i % 3, 0));
+            candidateRepository.save(new Candidate(0, "Candidate " + i, "Описание " + i,
+                    creationDate.minusMinutes(i), 1 + i % 3, 0));
+            fileRepository.save(new File("photo" + i + ".png", path(i), "hash" + i, 1024));
+        }
+    }
+
+    private static String path(int i) {
+        return "files/" + i + "_photo.png";
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+
+    private boolean updateRandomVacancy() {
+        var id = randomId();
+        return vacancyRepository.update(new Vacancy(id, "Java Developer " + id, "Новое описание",
+                creationDate.minusMinutes(id), true, 1 + id % 3, 0));
+    }
+
+    private boolean updateRandomCandidate() {
+        var id = randomId();
+        return candidateRepository.update(new Candidate(id, "Candidate " + id, "Новое описание",
+                creationDate.minusMinutes(id), 1 + id % 3, 0));
+    }
+
+    private int saveAndDeleteFile() {
+        var file = fileRepository.save(new File("photo.png", path(0), "hash", 1024));
+        fileRepository.deleteById(file.getId());
+        return file.getId();
+    }
+
+    @Benchmark
+    @Group("vacancyReadMostly")
+    @GroupThreads(3)
+    public Optional<Vacancy> vacancyReadMostlyFindById() {
+        return vacancyRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("vacancyReadMostly")
+    @GroupThreads(1)
+    public boolean vacancyReadMostlyUpdate() {
+        return updateRandomVacancy();
+    }
+
+    @Benchmark
+    @Group("vacancyListing")
+    @GroupThreads(3)
+    public List<VacancySummary> vacancyListingFindPage() {
+        return vacancyRepository.findPage(null, NO_FILTER, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    @Group("vacancyListing")
+    @GroupThreads(1)
+    public boolean vacancyListingUpdate() {
+        return updateRandomVacancy();
+    }
+
+    @Benchmark
+    @Group("candidateReadMostly")
+    @GroupThreads(3)
+    public Optional<Candidate> candidateReadMostlyFindById() {
+        return candidateRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("candidateReadMostly")
+    @GroupThreads(1)
+    public boolean candidateReadMostlyUpdate() {
+        return updateRandomCandidate();
+    }
+
+    @Benchmark
+    @Group("candidateListing")
+    @GroupThreads(3)
+    public List<CandidateSummary> candidateListingFindPage() {
+        return candidateRepository.findPage(null, NO_FILTER, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    @Group("candidateListing")
+    @GroupThreads(1)
+    public boolean candidateListingUpdate() {
+        return updateRandomCandidate();
+    }
+
+    @Benchmark
+    @Group("fileReadMostly")
+    @GroupThreads(3)
+    public Optional<File> fileReadMostlyFindById() {
+        return fileRepository.findById(randomId());
+    }
+
+    @Benchmark
+    @Group("fileReadMostly")
+    @GroupThreads(1)
+    public int fileReadMostlySaveAndDelete() {
+        return saveAndDeleteFile();
+    }
+
+    @Benchmark
+    @Group("fileCountByPath")
+    @GroupThreads(3)
+    public int fileCountByPathCount() {
+        return fileRepository.countByPath(path(randomId()));
+    }
+
+    @Benchmark
+    @Group("fileCountByPath")
+    @GroupThreads(1)
+    public int fileCountByPathSaveAndDelete() {
+        return saveAndDeleteFile();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MemoryRepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
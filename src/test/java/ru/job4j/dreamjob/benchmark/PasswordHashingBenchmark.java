@@ -0,0 +1,57 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/* Стоимость одной проверки пароля bcrypt в зависимости от security.password.bcrypt-strength.
+Каждый шаг strength удваивает время. Выбирается наибольшая стоимость, при которой проверка укладывается
+в целевую задержку входа (около 50-100 мс на ядро), а пропускная способность входа - это
+security.password.threads / время проверки: при 2 потоках и 100 мс - около 20 входов в секунду */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+
+    private String hash;
+
+    @Setup(Level.Trial)
+    public void createHash() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("correct horse battery staple");
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return encoder.matches("correct horse battery staple", hash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordHashingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,283 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.model.Candidate;
+import ru.job4j.dreamjob.model.City;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.Sql2oCandidateRepository;
+import ru.job4j.dreamjob.repository.Sql2oCityRepository;
+import ru.job4j.dreamjob.repository.Sql2oFileRepository;
+import ru.job4j.dreamjob.repository.Sql2oUserRepository;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* Операции Sql2o-репозиториев над таблицами H2 в памяти разного размера: вакансии и кандидаты
+(save, findById, update, findAll), файлы (save, findById, countByPath), пользователи (save, findByEmail)
+и справочник городов (findAll). Поиск по первичному ключу, email и path от размера таблицы почти не зависит,
+findAll читает и маппит всю таблицу и растёт линейно. Строки, вставленные save, удаляются после каждой
+итерации, чтобы размер таблиц оставался равным rows */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final List<String> CITIES = List.of("Москва", "Санкт-Петербург", "Екатеринбург");
+
+    private static final List<String> TABLES = List.of("vacancies", "candidates", "files", "users");
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private BasicDataSource dataSource;
+
+    private Sql2oVacancyRepository vacancyRepository;
+
+    private Sql2oCandidateRepository candidateRepository;
+
+    private Sql2oFileRepository fileRepository;
+
+    private Sql2oUserRepository userRepository;
+
+    private Sql2oCityRepository cityRepository;
+
+    private LocalDateTime creationDate;
+
+    private int savedUsers;
+
+    private interface RowBinder {
+        void bind(PreparedStatement statement, int i) throws SQLException;
+    }
+
+    @Setup(Level.Trial)
+    public void createTables() throws SQLException {
+        var configuration = new DatasourceConfiguration();
+        dataSource = configuration.connectionPool("jdbc:h2:mem:repository-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "", "", new DatasourcePoolProperties());
+        var sql2o = configuration.databaseClient(dataSource);
+        vacancyRepository = new Sql2oVacancyRepository(sql2o);
+        candidateRepository = new Sql2oCandidateRepository(sql2o);
+        fileRepository = new Sql2oFileRepository(sql2o);
+        userRepository = new Sql2oUserRepository(sql2o);
+        cityRepository = new Sql2oCityRepository(sql2o);
+        creationDate = LocalDateTime.now().withNano(0);
+        try (var connection = dataSource.getConnection()) {
+            /* схема повторяет db/scripts вместе с индексами, по которым ищут репозитории */
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE cities (id serial primary key, name varchar not null unique)");
+                statement.execute("""
+                        CREATE TABLE files (
+                            id serial primary key, name varchar not null, path varchar not null, hash varchar,
+                            creation_date timestamp default current_timestamp, size bigint not null default 0
+                        )""");
+                statement.execute("CREATE INDEX files_path_index ON files(path)");
+                statement.execute("""
+                        CREATE TABLE vacancies (
+                            id serial primary key, title varchar not null, description varchar not null,
+                            creation_date timestamp not null, visible boolean not null, city_id int, file_id int
+                        )""");
+                statement.execute("""
+                        CREATE TABLE candidates (
+                            id serial primary key, name varchar not null, description varchar not null,
+                            creation_date timestamp not null, city_id int, file_id int
+                        )""");
+                statement.execute("""
+                        CREATE TABLE users (
+                            id serial primary key, email varchar unique not null, name varchar not null,
+                            password varchar not null
+                        )""");
+            }
+            connection.setAutoCommit(false);
+            insert(connection, "INSERT INTO cities(name) VALUES (?)", CITIES.size(),
+                    (statement, i) -> statement.setString(1, CITIES.get(i - 1)));
+            insert(connection, "INSERT INTO files(name, path, hash, size) VALUES (?, ?, ?, ?)", rows,
+                    (statement, i) -> {
+                        statement.setString(1, "photo" + i + ".png");
+                        statement.setString(2, path(i));
+                        statement.setString(3, "hash" + i);
+                        statement.setLong(4, 1024);
+                    });
+            insert(connection, "INSERT INTO vacancies"
+                    + "(title, description, creation_date, visible, city_id, file_id) VALUES (?, ?, ?, ?, ?, ?)", rows,
+                    (statement, i) -> {
+                        statement.setString(1, "Java Developer " + i);
+                        statement.setString(2, "Описание вакансии " + i + " ".repeat(200));
+                        statement.setTimestamp(3, Timestamp.valueOf(creationDate.minusMinutes(i)));
+                        statement.setBoolean(4, i % 2 == 0);
+                        statement.setInt(5, 1 + i % CITIES.size());
+                        statement.setInt(6, i);
+                    });
+            insert(connection, "INSERT INTO candidates"
+                    + "(name, description, creation_date, city_id, file_id) VALUES (?, ?, ?, ?, ?)", rows,
+                    (statement, i) -> {
+                        statement.setString(1, "Candidate " + i);
+                        statement.setString(2, "Описание кандидата " + i + " ".repeat(200));
+                        statement.setTimestamp(3, Timestamp.valueOf(creationDate.minusMinutes(i)));
+                        statement.setInt(4, 1 + i % CITIES.size());
+                        statement.setInt(5, i);
+                    });
+            insert(connection, "INSERT INTO users(email, name, password) VALUES (?, ?, ?)", rows,
+                    (statement, i) -> {
+                        statement.setString(1, email(i));
+                        statement.setString(2, "User " + i);
+                        statement.setString(3, "$2a$10$" + "x".repeat(53));
+                    });
+            connection.commit();
+        }
+    }
+
+    private static void insert(Connection connection, String sql, int count, RowBinder binder) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            for (int i = 1; i <= count; i++) {
+                binder.bind(statement, i);
+                statement.addBatch();
+                if (i % 1000 == 0) {
+                    statement.executeBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteInserted() throws SQLException {
+        try (var connection = dataSource.getConnection()) {
+            for (var table : TABLES) {
+                try (var delete = connection.prepareStatement("DELETE FROM " + table + " WHERE id > ?")) {
+                    delete.setInt(1, rows);
+                    delete.executeUpdate();
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        dataSource.close();
+    }
+
+    private int randomId() {
+        return ThreadLocalRandom.current().nextInt(rows) + 1;
+    }
+
+    private static String path(int i) {
+        return "files/" + String.format("%02x", i % 256) + "/" + i + "_photo.png";
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@mail.ru";
+    }
+
+    @Benchmark
+    public Vacancy vacancySave() {
+        return vacancyRepository.save(new Vacancy(0, "Java Developer", "Описание", creationDate, true, 1, 1));
+    }
+
+    @Benchmark
+    public Optional<Vacancy> vacancyFindById() {
+        return vacancyRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean vacancyUpdate() {
+        var id = randomId();
+        return vacancyRepository.update(new Vacancy(id, "Java Developer " + id, "Новое описание",
+                creationDate.minusMinutes(id), true, 1, id));
+    }
+
+    @Benchmark
+    public Collection<Vacancy> vacancyFindAll() {
+        return vacancyRepository.findAll();
+    }
+
+    @Benchmark
+    public Candidate candidateSave() {
+        return candidateRepository.save(new Candidate(0, "Candidate", "Описание", creationDate, 1, 1));
+    }
+
+    @Benchmark
+    public Optional<Candidate> candidateFindById() {
+        return candidateRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public boolean candidateUpdate() {
+        var id = randomId();
+        return candidateRepository.update(new Candidate(id, "Candidate " + id, "Новое описание",
+                creationDate.minusMinutes(id), 1, id));
+    }
+
+    @Benchmark
+    public Collection<Candidate> candidateFindAll() {
+        return candidateRepository.findAll();
+    }
+
+    @Benchmark
+    public File fileSave() {
+        return fileRepository.save(new File("photo.png", path(0), "hash", 1024));
+    }
+
+    @Benchmark
+    public Optional<File> fileFindById() {
+        return fileRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public int fileCountByPath() {
+        return fileRepository.countByPath(path(randomId()));
+    }
+
+    @Benchmark
+    public Optional<User> userSave() {
+        return userRepository.save(new User(0, "saved" + ++savedUsers + "@mail.ru", "User", "password"));
+    }
+
+    @Benchmark
+    public Optional<User> userFindByEmail() {
+        return userRepository.findByEmail(email(randomId()));
+    }
+
+    @Benchmark
+    public Collection<City> cityFindAll() {
+        return cityRepository.findAll();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RepositoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.sql2o.ResultSetHandler;
+import org.sql2o.Sql2o;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.search.InvertedIndex;
+import ru.job4j.dreamjob.search.Tokenizer;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/* Страница поиска по вакансиям: инвертированный индекс в памяти против LIKE '%терм%' по таблице в H2.
+Тексты собираются из словаря с неравномерными частотами слов, как в настоящих вакансиях:
+term=java встречается часто, term=kotlin - редко, а term=rust не встречается совсем.
+LIKE не умеет ранжировать, поэтому ему достаточно найти первые 21 совпадение в порядке id,
+а индекс считает BM25 для всех совпавших документов - сравнение в пользу LIKE */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class SearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final String[] COMMON = {"разработчик", "разработчика", "опыт", "команда", "проект",
+            "сервисы", "java", "spring", "база", "данных", "задачи", "работа", "офис", "удалённо", "developer"};
+
+    private static final String[] RARE = {"аналитик", "тестировщик", "devops", "python", "golang", "kotlin"};
+
+    private static final ResultSetHandler<SearchHit> HIT_MAPPER =
+            resultSet -> new SearchHit(resultSet.getInt(1), resultSet.getString(2), 0);
+
+    @Param({"100000", "1000000"})
+    private int documents;
+
+    @Param({"java", "kotlin", "rust"})
+    private String term;
+
+    private BasicDataSource dataSource;
+
+    private Sql2o sql2o;
+
+    private InvertedIndex index;
+
+    @Setup(Level.Trial)
+    public void createDocuments() throws SQLException {
+        var configuration = new DatasourceConfiguration();
+        dataSource = configuration.connectionPool("jdbc:h2:mem:search-" + UUID.randomUUID()
+                + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1", "", "", new DatasourcePoolProperties());
+        sql2o = configuration.databaseClient(dataSource);
+        index = new InvertedIndex(new Tokenizer());
+        var random = new Random(42);
+        var creationDate = Timestamp.valueOf(LocalDateTime.now().withNano(0));
+        try (var connection = dataSource.getConnection()) {
+            connection.createStatement().execute("""
+                    CREATE TABLE vacancies (
+                        id int primary key, title varchar not null, description varchar not null,
+                        creation_date timestamp not null
+                    )""");
+            connection.setAutoCommit(false);
+            try (var insert = connection.prepareStatement(
+                    "INSERT INTO vacancies(id, title, description, creation_date) VALUES (?, ?, ?, ?)")) {
+                for (int id = 1; id <= documents; id++) {
+                    var title = words(random, 3);
+                    var description = words(random, 25);
+                    index.put(id, title, title, description);
+                    insert.setInt(1, id);
+                    insert.setString(2, title);
+                    insert.setString(3, description);
+                    insert.setTimestamp(4, creationDate);
+                    insert.addBatch();
+                    if (id % 1000 == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+            connection.commit();
+        }
+    }
+
+    /* частые слова - примерно 90% текста, редкие - остальное; "rust" в словаре нет */
+    private static String words(Random random, int count) {
+        var text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            var pool = random.nextInt(100) < 90 ? COMMON : RARE;
+            var word = pool[(int) Math.min(pool.length - 1, Math.abs(random.nextGaussian()) * pool.length / 3)];
+            text.append(word).append(i % 7 == 6 ? ". " : " ");
+        }
+        return text.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws SQLException {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public List<SearchHit> invertedIndex() {
+        return index.search(term, 0, PAGE_SIZE + 1);
+    }
+
+    @Benchmark
+    public List<SearchHit> sqlLike() {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery("SELECT id, title FROM vacancies "
+                    + "WHERE lower(title) LIKE :pattern OR lower(description) LIKE :pattern ORDER BY id DESC LIMIT :limit");
+            query.addParameter("pattern", "%" + term + "%");
+            query.addParameter("limit", PAGE_SIZE + 1);
+            return query.executeAndFetch(HIT_MAPPER);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
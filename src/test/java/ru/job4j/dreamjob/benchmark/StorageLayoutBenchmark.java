@@ -0,0 +1,89 @@
+package ru.job4j.dreamjob.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.FileSystemUtils;
+import ru.job4j.dreamjob.service.FileStorageLayout;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/* Сравнение задержки stat и open для плоского каталога (levels = 0) и раскладки по подкаталогам.
+Создание миллиона файлов занимает несколько минут, поэтому файлы создаются один раз на прогон */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageLayoutBenchmark {
+
+    @Param({"100000", "1000000"})
+    private int files;
+
+    @Param({"0", "2"})
+    private int levels;
+
+    private Path storageDirectory;
+
+    private Path[] paths;
+
+    @Setup(Level.Trial)
+    public void createFiles() throws IOException {
+        storageDirectory = Files.createTempDirectory("layout-benchmark");
+        var layout = new FileStorageLayout(storageDirectory.toString(), levels);
+        paths = new Path[files];
+        for (int i = 0; i < files; i++) {
+            var path = layout.resolve(UUID.randomUUID() + ".png");
+            Files.createDirectories(path.getParent());
+            paths[i] = Files.createFile(path);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFiles() throws IOException {
+        FileSystemUtils.deleteRecursively(storageDirectory);
+    }
+
+    @Benchmark
+    public BasicFileAttributes stat() throws IOException {
+        return Files.readAttributes(randomPath(), BasicFileAttributes.class);
+    }
+
+    @Benchmark
+    public long open() throws IOException {
+        try (var channel = FileChannel.open(randomPath())) {
+            return channel.size();
+        }
+    }
+
+    private Path randomPath() {
+        return paths[ThreadLocalRandom.current().nextInt(paths.length)];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StorageLayoutBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -11,11 +11,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.Page;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.service.CandidateService;
 import ru.job4j.dreamjob.service.CityService;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,17 +51,34 @@ class CandidateControllerTest {
     @DisplayName("Получаем страницу со списком кандидатов")
     @Test
     void whenRequestCandidatesPageThenReceiveAllCandidates() {
-        var candidate1 = new Candidate(1, "test1", "description1", now(), 1, 1);
-        var candidate2 = new Candidate(2, "test2", "description2", now(), 2, 2);
+        var candidate1 = new CandidateSummary(1, "test1", now(), "Москва");
+        var candidate2 = new CandidateSummary(2, "test2", now(), "Москва");
         var expectedCandidates = List.of(candidate1, candidate2);
-        when(mockCandidateService.findAll()).thenReturn(expectedCandidates);
+        var page = new Page<>(expectedCandidates, 20, "2024-01-01T12:00_1");
+        var filter = new ListFilter();
+        when(mockCandidateService.findPage(null, filter, 20)).thenReturn(page);
 
         var model = new ConcurrentModel();
-        var view = candidateController.getAll(model);
+        var view = candidateController.getAll(model, filter, null, 20);
         var actualCandidates = model.getAttribute("candidates");
 
         assertThat(view).isEqualTo("candidates/list");
         assertThat(actualCandidates).isEqualTo(expectedCandidates);
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+    }
+
+    @DisplayName("Курсор, фильтр и размер страницы из ссылки передаются в сервис")
+    @Test
+    void whenRequestNextPageThenCursorAndSizePassedToService() {
+        var page = new Page<CandidateSummary>(List.of(), 5, null);
+        var filter = new ListFilter(1, true, LocalDate.of(2024, 1, 1), null);
+        when(mockCandidateService.findPage("2024-01-01T12:00_7", filter, 5)).thenReturn(page);
+
+        var model = new ConcurrentModel();
+        candidateController.getAll(model, filter, "2024-01-01T12:00_7", 5);
+
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+        assertThat(model.getAttribute("cursor")).isEqualTo("2024-01-01T12:00_7");
     }
 
     @DisplayName("Получаем список городов при переходе на страницу создания резюме")
@@ -4,17 +4,43 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.FileResourceDto;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
 import ru.job4j.dreamjob.service.FileService;
+import ru.job4j.dreamjob.service.SimpleFileService;
 
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 class FileControllerTest {
@@ -24,30 +50,218 @@ class FileControllerTest {
     @Mock
     FileService mockFileService;
 
+    @TempDir
+    Path storageDirectory;
+
+    MockHttpServletRequest request;
+
+    FileService fileService;
+
     @BeforeEach
     public void initServices() {
         fileController = new FileController(mockFileService);
+        request = new MockHttpServletRequest("GET", "/files/1");
     }
 
     @DisplayName("Получение существующего файла по его id")
     @Test
-    void whenGetFileByIdThenReceiveIt() {
-        FileDto fileDto = new FileDto("name", new byte[] {1, 2, 3});
-        when(mockFileService.getFileById(anyInt())).thenReturn(Optional.of(fileDto));
+    void whenGetFileByIdThenReceiveIt() throws Exception {
+        var content = new ByteArrayResource(new byte[] {1, 2, 3});
+        var fileResourceDto = new FileResourceDto("name", content);
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.of(fileResourceDto));
 
-        var view = fileController.getById(1);
+        var view = fileController.getById(1, null, webRequest());
 
-        assertThat(view).isEqualTo(ResponseEntity.ok(Optional.of(fileDto).get().getContent()));
+        assertThat(view.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(view.getBody()).isEqualTo(content);
     }
 
     @DisplayName("Поиск несуществующего файла")
     @Test
-    void whenGetNonExistingFileByIdThenEmptyOptional() {
-        when(mockFileService.getFileById(anyInt())).thenReturn(Optional.empty());
+    void whenGetNonExistingFileByIdThenEmptyOptional() throws Exception {
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.empty());
 
-        var view = fileController.getById(1);
+        var view = fileController.getById(1, null, webRequest());
 
         assertThat(view).isEqualTo(ResponseEntity.notFound().build());
     }
 
-}
\ No newline at end of file
+    @DisplayName("Файл отдаётся с ETag, Last-Modified и долгим Cache-Control")
+    @Test
+    void whenGetFileThenReceiveCacheValidators() throws Exception {
+        var fileResourceDto = new FileResourceDto("name", new ByteArrayResource(new byte[] {1}),
+                "abc", LocalDateTime.of(2023, 1, 1, 12, 0));
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.of(fileResourceDto));
+
+        var view = fileController.getById(1, null, webRequest());
+
+        assertThat(view.getHeaders().getETag()).isEqualTo("\"abc\"");
+        assertThat(view.getHeaders().getLastModified()).isPositive();
+        assertThat(view.getHeaders().getCacheControl()).isEqualTo("max-age=31536000, private");
+    }
+
+    @DisplayName("Запрос с шириной отдаёт миниатюру, а оригинал вместо неё не кэшируется надолго")
+    @Test
+    void whenGetFileWithWidthThenServiceAskedForWidthAndFallbackRevalidated() throws Exception {
+        var fallback = new FileResourceDto("name.png", new ByteArrayResource(new byte[] {1}),
+                "abc", LocalDateTime.of(2023, 1, 1, 12, 0));
+        fallback.setCacheable(false);
+        var thumbnail = new FileResourceDto("name.png.w320.jpg", new ByteArrayResource(new byte[] {2}),
+                "abc.w320.jpg", LocalDateTime.of(2023, 1, 1, 12, 0));
+        when(mockFileService.getFileResourceById(1, 320)).thenReturn(Optional.of(fallback));
+        when(mockFileService.getFileResourceById(2, 320)).thenReturn(Optional.of(thumbnail));
+
+        var fallbackView = fileController.getById(1, 320, webRequest());
+        var thumbnailView = fileController.getById(2, 320, new ServletWebRequest(new MockHttpServletRequest(),
+                new MockHttpServletResponse()));
+
+        assertThat(fallbackView.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+        assertThat(thumbnailView.getHeaders().getCacheControl()).isEqualTo("max-age=31536000, private");
+        assertThat(thumbnailView.getHeaders().getETag()).isEqualTo("\"abc.w320.jpg\"");
+        assertThat(thumbnailView.getHeaders().getContentType()).isEqualTo(MediaType.IMAGE_JPEG);
+    }
+
+    @DisplayName("При совпадении If-None-Match возвращается 304, а файл не читается")
+    @Test
+    void whenETagMatchesThenNotModifiedWithoutReadingFile() throws Exception {
+        var content = mock(Resource.class);
+        var fileResourceDto = new FileResourceDto("name", content, "abc", LocalDateTime.now());
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.of(fileResourceDto));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"abc\"");
+
+        var view = fileController.getById(1, null, webRequest());
+
+        assertThat(view.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(view.getBody()).isNull();
+        verifyNoInteractions(content);
+    }
+
+    @DisplayName("При неизменённом файле If-Modified-Since возвращает 304")
+    @Test
+    void whenNotModifiedSinceThenNotModified() throws Exception {
+        var creationDate = LocalDateTime.of(2023, 1, 1, 12, 0);
+        var fileResourceDto = new FileResourceDto("name", mock(Resource.class), null, creationDate);
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.of(fileResourceDto));
+        request.addHeader(HttpHeaders.IF_MODIFIED_SINCE, "Mon, 01 Jan 2024 00:00:00 GMT");
+
+        var view = fileController.getById(1, null, webRequest());
+
+        assertThat(view.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
+    @DisplayName("При изменившемся ETag файл отдаётся заново")
+    @Test
+    void whenETagDiffersThenReceiveFile() throws Exception {
+        var content = new ByteArrayResource(new byte[] {1});
+        var fileResourceDto = new FileResourceDto("name", content, "abc", LocalDateTime.now());
+        when(mockFileService.getFileResourceById(anyInt())).thenReturn(Optional.of(fileResourceDto));
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+
+        var view = fileController.getById(1, null, webRequest());
+
+        assertThat(view.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(view.getBody()).isEqualTo(content);
+    }
+
+    @DisplayName("Память при отдаче файла не растёт вместе с его размером")
+    @Test
+    void whenStreamLargeFileThenAllocatedMemoryDoesNotDependOnFileSize() throws Exception {
+        var fileRepository = new MemoryFileRepository();
+        var fileService = new SimpleFileService(fileRepository, storageDirectory.toString());
+        var controller = new FileController(fileService);
+        var small = fileService.save(new FileDto("small.bin", new byte[1024]));
+        var large = fileService.save(new FileDto("large.bin", new byte[0]));
+        try (var file = new RandomAccessFile(large.getPath(), "rw")) {
+            file.setLength(64L * 1024 * 1024);
+        }
+
+        streamAndMeasure(controller, small.getId());
+        var allocatedForSmall = streamAndMeasure(controller, small.getId());
+        var allocatedForLarge = streamAndMeasure(controller, large.getId());
+
+        assertThat(allocatedForLarge).isLessThan(1024L * 1024);
+        assertThat(allocatedForLarge).isLessThan(allocatedForSmall + 256L * 1024);
+    }
+
+    private long streamAndMeasure(FileController controller, int id) throws Exception {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var before = threads.getCurrentThreadAllocatedBytes();
+        var resource = controller.getById(id, null, webRequest()).getBody();
+        try (var in = resource.getInputStream()) {
+            StreamUtils.copy(in, OutputStream.nullOutputStream());
+        }
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    @DisplayName("Запрос одного диапазона возвращает 206 и только запрошенные байты")
+    @Test
+    void whenRequestSingleRangeThenPartialContent() throws Exception {
+        var id = saveFile(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        rangeMockMvc().perform(get("/files/{id}", id).header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(content().bytes(new byte[] {2, 3, 4}));
+    }
+
+    @DisplayName("Запрос нескольких диапазонов возвращает multipart/byteranges")
+    @Test
+    void whenRequestSeveralRangesThenMultipartByteRanges() throws Exception {
+        var id = saveFile(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        rangeMockMvc().perform(get("/files/{id}", id).header(HttpHeaders.RANGE, "bytes=0-1,8-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE,
+                        org.hamcrest.Matchers.startsWith("multipart/byteranges")));
+    }
+
+    @DisplayName("Диапазон за пределами файла возвращает 416")
+    @Test
+    void whenRequestRangeOutsideFileThenNotSatisfiable() throws Exception {
+        var id = saveFile(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+
+        rangeMockMvc().perform(get("/files/{id}", id).header(HttpHeaders.RANGE, "bytes=20-30"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @DisplayName("При несовпавшем If-Range файл отдаётся целиком")
+    @Test
+    void whenIfRangeDoesNotMatchThenWholeFile() throws Exception {
+        var bytes = new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        var id = saveFile(bytes);
+
+        rangeMockMvc().perform(get("/files/{id}", id)
+                        .header(HttpHeaders.RANGE, "bytes=2-4")
+                        .header(HttpHeaders.IF_RANGE, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(bytes));
+    }
+
+    @DisplayName("При совпавшем If-Range возвращается запрошенный диапазон")
+    @Test
+    void whenIfRangeMatchesThenPartialContent() throws Exception {
+        var id = saveFile(new byte[] {0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        var eTag = rangeMockMvc().perform(get("/files/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        rangeMockMvc().perform(get("/files/{id}", id)
+                        .header(HttpHeaders.RANGE, "bytes=0-0")
+                        .header(HttpHeaders.IF_RANGE, eTag))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(new byte[] {0}));
+    }
+
+    private int saveFile(byte[] content) {
+        fileService = new SimpleFileService(new MemoryFileRepository(), storageDirectory.toString());
+        return fileService.save(new FileDto("file.bin", content)).getId();
+    }
+
+    private MockMvc rangeMockMvc() {
+        return MockMvcBuilders.standaloneSetup(new FileController(fileService)).build();
+    }
+
+    private ServletWebRequest webRequest() {
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,164 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.metrics.InstrumentedDataSource;
+import ru.job4j.dreamjob.metrics.MetricsRegistry;
+import ru.job4j.dreamjob.metrics.PrometheusFormat;
+import ru.job4j.dreamjob.metrics.StatementStatistics;
+import ru.job4j.dreamjob.service.EntityCache;
+import ru.job4j.dreamjob.service.FileGarbageCollector;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MetricsControllerTest {
+
+    private InstrumentedDataSource dataSource;
+
+    private EntityCache<String> cache;
+
+    private MetricsRegistry metricsRegistry;
+
+    private StatementStatistics statementStatistics;
+
+    private MetricsController metricsController;
+
+    @BeforeEach
+    public void initController() throws Exception {
+        var properties = new Properties();
+        try (var inputStream = MetricsControllerTest.class.getClassLoader()
+                .getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        var pool = new DatasourcePoolProperties();
+        pool.setInitialSize(0);
+        pool.setMaxTotal(3);
+        dataSource = new DatasourceConfiguration().connectionPool(properties.getProperty("datasource.url"),
+                properties.getProperty("datasource.username"), properties.getProperty("datasource.password"), pool);
+        cache = new EntityCache<>("vacancies", 10, Duration.ofMinutes(1));
+        metricsRegistry = new MetricsRegistry();
+        statementStatistics = new StatementStatistics(Duration.ofHours(1), 100);
+        metricsController = new MetricsController(dataSource, List.of(cache), metricsRegistry, statementStatistics,
+                Optional.empty());
+    }
+
+    @AfterEach
+    public void closePool() throws Exception {
+        dataSource.close();
+    }
+
+    @DisplayName("Метрики пула отдаются в формате Prometheus с учётом выданных соединений")
+    @Test
+    void whenConnectionBorrowedThenMetricsShowActiveAndWaitHistogram() throws Exception {
+        try (var connection = dataSource.getConnection()) {
+            var view = metricsController.getMetrics();
+            var body = view.getBody();
+
+            assertThat(view.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE)).isEqualTo(PrometheusFormat.CONTENT_TYPE);
+            assertThat(body).contains("# TYPE dreamjob_db_pool_active gauge");
+            assertThat(body).contains("dreamjob_db_pool_active 1\n");
+            assertThat(body).contains("dreamjob_db_pool_max 3\n");
+            assertThat(body).contains("dreamjob_db_pool_waiters 0\n");
+            assertThat(body).contains("dreamjob_db_pool_wait_seconds_bucket{le=\"+Inf\"} 1\n");
+            assertThat(body.lines().filter(line -> line.startsWith("dreamjob_db_pool_wait_seconds_bucket")))
+                    .hasSize(dataSource.getConnectionWait().getBucketCount() + 1);
+            assertThat(body).contains("dreamjob_db_pool_wait_seconds_count 1\n");
+        }
+    }
+
+    @DisplayName("Счётчики кэшей сущностей попадают в метрики")
+    @Test
+    void whenCacheUsedThenMetricsShowHitsAndMisses() {
+        cache.get(1, id -> Optional.of("vacancy"));
+        cache.get(1, id -> Optional.of("vacancy"));
+
+        var body = metricsController.getMetrics().getBody();
+
+        assertThat(body).contains("dreamjob_cache_vacancies_size 1\n");
+        assertThat(body).contains("dreamjob_cache_vacancies_hits_total 1\n");
+        assertThat(body).contains("dreamjob_cache_vacancies_misses_total 1\n");
+        assertThat(body).contains("dreamjob_cache_vacancies_evictions_total 0\n");
+    }
+
+    @DisplayName("Длительности обработчиков, репозиториев и операций с файлами выводятся с метками")
+    @Test
+    void whenRegistryRecordedThenMetricsShowLabelledSeries() {
+        metricsRegistry.getHttpRequests().labels("VacancyController.getAll", "200").record(3_000_000);
+        metricsRegistry.getRepositoryErrors().labels("Sql2oVacancyRepository", "save").increment();
+        metricsRegistry.getFileIoBytes().labels("write").add(1024);
+
+        var body = metricsController.getMetrics().getBody();
+
+        assertThat(body).contains("# TYPE dreamjob_http_request_duration_seconds histogram\n");
+        assertThat(body).contains("dreamjob_http_request_duration_seconds_bucket"
+                + "{handler=\"VacancyController.getAll\",status=\"200\",le=\"0.000001\"} 0\n");
+        assertThat(body).contains("dreamjob_http_request_duration_seconds_bucket"
+                + "{handler=\"VacancyController.getAll\",status=\"200\",le=\"0.004096\"} 1\n");
+        assertThat(body).contains("dreamjob_http_request_duration_seconds_count"
+                + "{handler=\"VacancyController.getAll\",status=\"200\"} 1\n");
+        assertThat(body).contains("dreamjob_http_request_duration_seconds_sum"
+                + "{handler=\"VacancyController.getAll\",status=\"200\"} 0.003\n");
+        assertThat(body).contains("dreamjob_repository_errors_total"
+                + "{repository=\"Sql2oVacancyRepository\",method=\"save\"} 1\n");
+        assertThat(body).contains("dreamjob_file_io_bytes_total{operation=\"write\"} 1024\n");
+    }
+
+    @DisplayName("Статистика запросов попадает в метрики, а самые тяжёлые виды - в отдельную страницу")
+    @Test
+    void whenStatementsExecutedThenTopShowsShapes() throws Exception {
+        try (var connection = statementStatistics.wrap(dataSource).getConnection();
+             var statement = connection.prepareStatement("SELECT name FROM cities WHERE id IN (?, ?)")) {
+            statement.setInt(1, 1);
+            statement.setInt(2, 2);
+            try (var resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    assertThat(resultSet.getString(1)).isNotEmpty();
+                }
+            }
+        }
+
+        var body = metricsController.getMetrics().getBody();
+        var top = metricsController.getTopStatements(5, "rows");
+
+        assertThat(body).contains("dreamjob_db_statement_duration_seconds_count 1\n");
+        assertThat(body).contains("dreamjob_db_statement_rows_total 2\n");
+        assertThat(body).contains("dreamjob_db_statement_shapes 1\n");
+        assertThat(top.getBody()).contains("SELECT name FROM cities WHERE id IN (?, ...)");
+        assertThat(top.getBody().lines()).hasSize(2);
+    }
+
+    @DisplayName("Итоги сборщика мусора хранилища попадают в метрики, а без сборщика не выводятся")
+    @Test
+    void whenFileGarbageCollectorPresentThenReclaimedTotalsExported() {
+        var collector = mock(FileGarbageCollector.class);
+        when(collector.getRuns()).thenReturn(2L);
+        when(collector.getReclaimedRows()).thenReturn(3L);
+        when(collector.getReclaimedBlobs()).thenReturn(4L);
+        when(collector.getReclaimedBytes()).thenReturn(1024L);
+        when(collector.getLastRunMillis()).thenReturn(1500L);
+        var withCollector = new MetricsController(dataSource, List.of(cache), metricsRegistry, statementStatistics,
+                Optional.of(collector));
+
+        var body = withCollector.getMetrics().getBody();
+
+        assertThat(body).contains("# TYPE dreamjob_file_gc_runs_total counter");
+        assertThat(body).contains("dreamjob_file_gc_runs_total 2\n");
+        assertThat(body).contains("dreamjob_file_gc_reclaimed_rows_total 3\n");
+        assertThat(body).contains("dreamjob_file_gc_reclaimed_blobs_total 4\n");
+        assertThat(body).contains("dreamjob_file_gc_reclaimed_bytes_total 1024\n");
+        assertThat(body).contains("dreamjob_file_gc_last_run_duration_seconds 1.5\n");
+        assertThat(metricsController.getMetrics().getBody()).doesNotContain("dreamjob_file_gc_");
+    }
+}
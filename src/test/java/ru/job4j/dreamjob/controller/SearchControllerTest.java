@@ -0,0 +1,62 @@
+package ru.job4j.dreamjob.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.ui.ConcurrentModel;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.service.SearchService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchControllerTest {
+
+    @Mock
+    private SearchService mockSearchService;
+
+    private SearchController searchController;
+
+    @BeforeEach
+    public void initServices() {
+        searchController = new SearchController(mockSearchService);
+    }
+
+    @DisplayName("По умолчанию поиск идёт по вакансиям")
+    @Test
+    void whenSearchWithoutScopeThenSearchVacancies() {
+        var hits = List.of(new SearchHit(1, "Java разработчик", 2.5));
+        var page = new Page<>(hits, 20, "20");
+        when(mockSearchService.searchVacancies("java", null, 20)).thenReturn(page);
+
+        var model = new ConcurrentModel();
+        var view = searchController.search(model, "java", "vacancies", null, 20);
+
+        assertThat(view).isEqualTo("search/list");
+        assertThat(model.getAttribute("hits")).isEqualTo(hits);
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+        assertThat(model.getAttribute("q")).isEqualTo("java");
+        assertThat(model.getAttribute("scope")).isEqualTo("vacancies");
+    }
+
+    @DisplayName("Поиск по резюме получает курсор и размер страницы из ссылки")
+    @Test
+    void whenSearchCandidatesThenCursorPassedToService() {
+        var page = new Page<SearchHit>(List.of(), 5, null);
+        when(mockSearchService.searchCandidates("аналитик", "10", 5)).thenReturn(page);
+
+        var model = new ConcurrentModel();
+        searchController.search(model, "аналитик", "candidates", "10", 5);
+
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+        assertThat(model.getAttribute("scope")).isEqualTo("candidates");
+        assertThat(model.getAttribute("cursor")).isEqualTo("10");
+    }
+}
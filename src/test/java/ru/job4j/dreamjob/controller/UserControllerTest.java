@@ -7,8 +7,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.ui.ConcurrentModel;
 import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.service.PasswordHasherBusyException;
 import ru.job4j.dreamjob.service.UserService;
 
 import java.util.Optional;
@@ -45,7 +47,7 @@ class UserControllerTest {
         when(mockUserService.save(user)).thenReturn(Optional.of(user));
 
         var model = new ConcurrentModel();
-        var view = userController.register(user, model);
+        var view = userController.register(user, model, new MockHttpServletResponse());
 
         assertThat(view).isEqualTo("redirect:/vacancies");
     }
@@ -57,7 +59,7 @@ class UserControllerTest {
         when(mockUserService.save(user)).thenReturn(Optional.empty());
 
         var model = new ConcurrentModel();
-        var view = userController.register(user, model);
+        var view = userController.register(user, model, new MockHttpServletResponse());
 
         assertThat(view).isEqualTo("errors/404");
         assertThat(model.getAttribute("message"))
@@ -81,7 +83,7 @@ class UserControllerTest {
                 .thenReturn(Optional.of(user));
 
         var model = new ConcurrentModel();
-        var view = userController.loginUser(user, model, request);
+        var view = userController.loginUser(user, model, request, new MockHttpServletResponse());
         var httpSession = request.getSession();
 
         assertThat(view).isEqualTo("redirect:/vacancies");
@@ -98,7 +100,7 @@ class UserControllerTest {
                 .thenReturn(Optional.empty());
 
         var model = new ConcurrentModel();
-        var view = userController.loginUser(user, model, request);
+        var view = userController.loginUser(user, model, request, new MockHttpServletResponse());
         var httpSession = request.getSession();
 
         assertThat(view).isEqualTo("users/login");
@@ -107,4 +109,22 @@ class UserControllerTest {
         assertThat(httpSession).isNotNull();
         assertThat(httpSession.getAttribute("user")).isEqualTo(null);
     }
-}
\ No newline at end of file
+
+    @DisplayName("Перегруженный пул проверки паролей отвечает 429 с Retry-After")
+    @Test
+    void whenPasswordHasherIsBusyThenReceiveTooManyRequests() {
+        var request = new MockHttpServletRequest();
+        var response = new MockHttpServletResponse();
+        var user = new User(1, "email", "name", "password");
+        when(mockUserService.findByEmailAndPassword(anyString(), anyString()))
+                .thenThrow(new PasswordHasherBusyException("busy", null));
+
+        var model = new ConcurrentModel();
+        var view = userController.loginUser(user, model, request, response);
+
+        assertThat(view).isEqualTo("users/login");
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(request.getSession(false)).isNull();
+    }
+}
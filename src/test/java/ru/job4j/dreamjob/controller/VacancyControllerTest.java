@@ -13,11 +13,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ui.ConcurrentModel;
 import org.springframework.web.multipart.MultipartFile;
 import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.Page;
+import ru.job4j.dreamjob.dto.VacancySummary;
 import ru.job4j.dreamjob.model.City;
 import ru.job4j.dreamjob.model.Vacancy;
 import ru.job4j.dreamjob.service.CityService;
 import ru.job4j.dreamjob.service.VacancyService;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,17 +51,34 @@ class VacancyControllerTest {
     @DisplayName("Переход на страницу с вакансиями на запрос страницы вакансий")
     @Test
     public void whenRequestVacancyListPageThenGetPageWithVacancies() {
-        var vacancy1 = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var vacancy2 = new Vacancy(2, "test2", "desc2", now(), false, 3, 4);
+        var vacancy1 = new VacancySummary(1, "test1", now(), true, "Москва");
+        var vacancy2 = new VacancySummary(2, "test2", now(), false, "Москва");
         var expectedVacancies = List.of(vacancy1, vacancy2);
-        when(mockVacancyService.findAll()).thenReturn(expectedVacancies);
+        var page = new Page<>(expectedVacancies, 20, "2024-01-01T12:00_1");
+        var filter = new ListFilter();
+        when(mockVacancyService.findPage(null, filter, 20)).thenReturn(page);
 
         var model = new ConcurrentModel();
-        var view = vacancyController.getAll(model);
+        var view = vacancyController.getAll(model, filter, null, 20);
         var actualVacancies = model.getAttribute("vacancies");
 
         assertThat(view).isEqualTo("vacancies/list");
         assertThat(actualVacancies).isEqualTo(expectedVacancies);
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+    }
+
+    @DisplayName("Курсор, фильтр и размер страницы из ссылки передаются в сервис")
+    @Test
+    void whenRequestNextPageThenCursorAndSizePassedToService() {
+        var page = new Page<VacancySummary>(List.of(), 5, null);
+        var filter = new ListFilter(1, true, LocalDate.of(2024, 1, 1), null);
+        when(mockVacancyService.findPage("2024-01-01T12:00_7", filter, 5)).thenReturn(page);
+
+        var model = new ConcurrentModel();
+        vacancyController.getAll(model, filter, "2024-01-01T12:00_7", 5);
+
+        assertThat(model.getAttribute("page")).isEqualTo(page);
+        assertThat(model.getAttribute("cursor")).isEqualTo("2024-01-01T12:00_7");
     }
 
     @DisplayName("Получаем список город на странице создания вакансии")
@@ -94,7 +115,7 @@ class VacancyControllerTest {
     @Test
     public void whenPostVacancyWithFileThenSameDataAndRedirectToVacanciesPage() throws Exception {
         var vacancy = new Vacancy(1, "test1", "desc1", now(), true, 1, 2);
-        var fileDto = new FileDto(mockTestFile.getOriginalFilename(), mockTestFile.getBytes());
+        var fileDto = new FileDto(mockTestFile.getOriginalFilename(), mockTestFile.getSize(), mockTestFile);
         var vacancyArgumentCaptor = ArgumentCaptor.forClass(Vacancy.class);
         var fileDtoArgumentCaptor = ArgumentCaptor.forClass(FileDto.class);
         when(mockVacancyService.save(vacancyArgumentCaptor.capture(),
@@ -0,0 +1,82 @@
+package ru.job4j.dreamjob.filter;
+
+import org.apache.catalina.Context;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/* Поток анонимных запросов к настоящему Tomcat: страницы входа, статика и закрытые страницы
+с редиректом на вход. Ни один запрос не должен создать сессию или получить куку JSESSIONID */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "datasource.url=jdbc:h2:./testdb;MODE=PostgreSQL;CASE_INSENSITIVE_IDENTIFIERS=TRUE;",
+        "datasource.username=",
+        "datasource.password=",
+        "file.directory=${java.io.tmpdir}/dreamjob-session-test",
+        "file.gc.enabled=false",
+        "ratelimit.enabled=false"
+})
+class AnonymousSessionLoadTest {
+
+    private static final int REQUESTS = 4000;
+
+    private static final List<String> PATHS = List.of("/users/login", "/users/register", "/css/bootstrap.min.css",
+            "/js/bootstrap.bundle.min.js", "/vacancies", "/candidates", "/index", "/search?q=java");
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @DisplayName("Анонимные запросы не создают сессий и не получают куку")
+    @Test
+    void whenAnonymousTrafficThenNoSessions() {
+        var webServer = (TomcatWebServer) context.getWebServer();
+        var manager = ((Context) webServer.getTomcat().getHost().findChildren()[0]).getManager();
+        var client = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NEVER).build();
+        var base = "http://localhost:" + webServer.getPort();
+
+        var cookies = send(client, base, REQUESTS);
+
+        assertThat(cookies).isZero();
+        assertThat(manager.getActiveSessions()).isZero();
+        assertThat(manager.getSessionCounter()).isZero();
+    }
+
+    /* число ответов с Set-Cookie */
+    private static int send(HttpClient client, String base, int count) {
+        var cookies = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var futures = new CompletableFuture<?>[count];
+            for (int i = 0; i < count; i++) {
+                var request = HttpRequest.newBuilder(URI.create(base + PATHS.get(i % PATHS.size()))).build();
+                futures[i] = CompletableFuture.runAsync(() -> {
+                    try {
+                        var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.headers().firstValue("Set-Cookie").isPresent()) {
+                            cookies.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+        return cookies.get();
+    }
+}
@@ -0,0 +1,102 @@
+package ru.job4j.dreamjob.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import ru.job4j.dreamjob.model.User;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthorizationFilterTest {
+
+    private final AuthorizationFilter filter = new AuthorizationFilter(Set.of("127.0.0.1"), "secret");
+
+    private MockHttpServletResponse send(MockHttpServletRequest request, MockFilterChain chain) throws Exception {
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    @DisplayName("Метрики с разрешённого адреса отдаются без входа")
+    @Test
+    void whenMetricsFromAllowedAddressThenPassed() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/metrics/statements");
+        request.setRemoteAddr("127.0.0.1");
+        var chain = new MockFilterChain();
+
+        send(request, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @DisplayName("Метрики с чужого адреса без токена и с неверным токеном запрещены")
+    @Test
+    void whenMetricsFromOtherAddressWithoutTokenThenForbidden() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/metrics");
+        request.setRemoteAddr("203.0.113.7");
+        var wrongToken = new MockHttpServletRequest("GET", "/metrics");
+        wrongToken.setRemoteAddr("203.0.113.7");
+        wrongToken.addHeader(HttpHeaders.AUTHORIZATION, "Bearer guess");
+        var chain = new MockFilterChain();
+
+        assertThat(send(request, chain).getStatus()).isEqualTo(403);
+        assertThat(send(wrongToken, chain).getStatus()).isEqualTo(403);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @DisplayName("Параметры пути и %xx в адресе не обходят защиту метрик даже у вошедшего пользователя")
+    @Test
+    void whenMetricsPathHasParametersThenStillForbidden() throws Exception {
+        var chain = new MockFilterChain();
+        for (var uri : new String[] {"/metrics;x", "/metrics/statements;x=1", "/%6Detrics"}) {
+            var request = new MockHttpServletRequest("GET", uri);
+            request.setRemoteAddr("203.0.113.7");
+            request.getSession().setAttribute("user", new User(1, "user@mail.ru", "user", "password"));
+
+            assertThat(send(request, chain).getStatus()).isEqualTo(403);
+        }
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @DisplayName("Метрики с чужого адреса отдаются по верному токену")
+    @Test
+    void whenMetricsWithTokenThenPassed() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/metrics");
+        request.setRemoteAddr("203.0.113.7");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer secret");
+        var chain = new MockFilterChain();
+
+        send(request, chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+    }
+
+    @DisplayName("Пустой токен в настройках не пускает по пустому заголовку")
+    @Test
+    void whenTokenNotConfiguredThenEmptyBearerForbidden() throws Exception {
+        var noToken = new AuthorizationFilter(Set.of(), "");
+        var request = new MockHttpServletRequest("GET", "/metrics");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer ");
+        var response = new MockHttpServletResponse();
+
+        noToken.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(403);
+    }
+
+    @DisplayName("Остальные страницы без входа по-прежнему перенаправляют на вход")
+    @Test
+    void whenAnonymousRequestsPageThenRedirectedToLogin() throws Exception {
+        var request = new MockHttpServletRequest("GET", "/vacancies");
+        request.setRemoteAddr("127.0.0.1");
+
+        var response = send(request, new MockFilterChain());
+
+        assertThat(response.getRedirectedUrl()).isEqualTo("/users/login");
+    }
+}
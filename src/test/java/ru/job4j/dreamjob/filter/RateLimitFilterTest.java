@@ -0,0 +1,75 @@
+package ru.job4j.dreamjob.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final RateLimitFilter filter = new RateLimitFilter(true, 64, 3, Duration.ofSeconds(3),
+            2, Duration.ofSeconds(12));
+
+    private MockHttpServletResponse send(String method, String uri, String address, String email) throws Exception {
+        var request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        if (email != null) {
+            request.setParameter("email", email);
+        }
+        var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @DisplayName("После burst попыток входа с одного адреса отдаётся 429 с Retry-After")
+    @Test
+    void whenAddressBurstSpentThenTooManyRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertThat(send("POST", "/users/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+
+        var response = send("POST", "/users/login", "10.0.0.1", null);
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(3L, 4L);
+        assertThat(send("POST", "/users/login", "10.0.0.2", null).getStatus()).isEqualTo(200);
+    }
+
+    @DisplayName("Параметры пути и %xx в адресе не обходят ограничение")
+    @Test
+    void whenPathHasParametersOrEncodingThenStillLimited() throws Exception {
+        send("POST", "/users/login", "10.0.0.1", null);
+        send("POST", "/users/login;x=1", "10.0.0.1", null);
+        send("POST", "/users/%6Cogin", "10.0.0.1", null);
+
+        assertThat(send("POST", "/users/login;jsessionid=1", "10.0.0.1", null).getStatus()).isEqualTo(429);
+        assertThat(send("POST", "/users/register;x=1", "10.0.0.1", null).getStatus()).isEqualTo(429);
+    }
+
+    @DisplayName("Перебор одной учётки с разных адресов упирается в корзину email")
+    @Test
+    void whenEmailBurstSpentFromManyAddressesThenTooManyRequests() throws Exception {
+        send("POST", "/users/login", "10.0.0.1", "User@Mail.ru");
+        send("POST", "/users/login", "10.0.0.2", "user@mail.ru ");
+
+        var response = send("POST", "/users/login", "10.0.0.3", "user@mail.ru");
+
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(Long.parseLong(response.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(12L, 13L);
+    }
+
+    @DisplayName("GET страниц входа и остальные адреса не ограничиваются")
+    @Test
+    void whenNotLimitedRequestThenPassed() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(send("GET", "/users/login", "10.0.0.1", null).getStatus()).isEqualTo(200);
+            assertThat(send("POST", "/vacancies/create", "10.0.0.1", null).getStatus()).isEqualTo(200);
+        }
+    }
+}
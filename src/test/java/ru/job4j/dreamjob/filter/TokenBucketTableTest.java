@@ -0,0 +1,93 @@
+package ru.job4j.dreamjob.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTableTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @DisplayName("Пропускается burst запросов подряд, дальше - отказ со временем до следующего токена")
+    @Test
+    void whenBurstIsSpentThenRejectedWithWait() {
+        var table = new TokenBucketTable(64, 3, Duration.ofSeconds(2), clock::get);
+
+        assertThat(table.tryAcquire("1.2.3.4")).isZero();
+        assertThat(table.tryAcquire("1.2.3.4")).isZero();
+        assertThat(table.tryAcquire("1.2.3.4")).isZero();
+        assertThat(table.tryAcquire("1.2.3.4")).isBetween(1999L, 2001L);
+        assertThat(table.tryAcquire("5.6.7.8")).isZero();
+
+        clock.addAndGet(1500);
+        assertThat(table.tryAcquire("1.2.3.4")).isBetween(499L, 501L);
+        clock.addAndGet(500);
+        assertThat(table.tryAcquire("1.2.3.4")).isZero();
+        assertThat(table.tryAcquire("1.2.3.4")).isPositive();
+    }
+
+    @DisplayName("Корзина пополняется не больше чем до burst")
+    @Test
+    void whenIdleForLongThenRefilledUpToBurst() {
+        var table = new TokenBucketTable(64, 2, Duration.ofSeconds(1), clock::get);
+        table.tryAcquire("key");
+        table.tryAcquire("key");
+
+        clock.addAndGet(60_000);
+
+        assertThat(table.tryAcquire("key")).isZero();
+        assertThat(table.tryAcquire("key")).isZero();
+        assertThat(table.tryAcquire("key")).isPositive();
+    }
+
+    @DisplayName("Миллион разных ключей не увеличивает таблицу и не сбрасывает лимит уже ограниченного ключа")
+    @Test
+    void whenManyDistinctKeysThenSizeIsBounded() {
+        var table = new TokenBucketTable(1024, 1, Duration.ofMinutes(1), clock::get);
+        table.tryAcquire("attacker");
+
+        for (int i = 0; i < 1_000_000; i++) {
+            table.tryAcquire("key" + i);
+        }
+
+        assertThat(table.size()).isEqualTo(1024);
+        assertThat(table.tryAcquire("attacker")).isPositive();
+    }
+
+    @DisplayName("Из параллельных потоков списывается ровно burst токенов")
+    @Test
+    void whenConcurrentThenExactlyBurstAllowed() throws InterruptedException {
+        var table = new TokenBucketTable(64, 1000, Duration.ofHours(1), clock::get);
+        var allowed = new AtomicInteger();
+        var threads = new Thread[4];
+        var startSignal = new CountDownLatch(1);
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    startSignal.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 1000; j++) {
+                    if (table.tryAcquire("shared") == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        startSignal.countDown();
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertThat(allowed.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,290 @@
+package ru.job4j.dreamjob.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.job4j.dreamjob.Main;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.Sql2oVacancyRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/* Нагрузочный прогон всего приложения через HTTP: поднимает Main со встроенным Tomcat на свободном порту,
+с копией тестовой базы H2 (./testdb.mv.db, её создаёт mvn process-resources) и временным file.directory.
+Регистрирует пользователя, входит через /users/login и из workers потоков гоняет смесь запросов
+к списку, карточке вакансии, созданию вакансии с загрузкой файла и /files/{id}. После прогрева
+печатает по каждому запросу число запросов в секунду, ошибки и p50/p95/p99/p99.9/max.
+Запуск (параметры необязательны):
+    java -cp target/classes:target/test-classes:... ru.job4j.dreamjob.load.HttpLoadHarness
+        --workers=16 --duration=PT60S --warmup=PT10S --vacancies=500 --upload-size=20000
+        --mix=list:40,detail:30,file:20,create:5,candidates:5
+Каждый поток отправляет следующий запрос только после ответа на предыдущий (замкнутая нагрузка),
+поэтому при перегрузке задержки занижены: медленные ответы сдерживают и частоту запросов.
+Приложение и потоки нагрузки делят один процессор - для сравнения двух версий этого достаточно,
+для абсолютных цифр нужна отдельная машина */
+public class HttpLoadHarness {
+
+    private static final String BOUNDARY = "----dreamjob" + UUID.randomUUID();
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<String, String> options;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .cookieHandler(new CookieManager())
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    private String base;
+
+    private List<Vacancy> vacancies;
+
+    private byte[] upload;
+
+    public HttpLoadHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var options = new LinkedHashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Ожидается --имя=значение: " + arg);
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        new HttpLoadHarness(options).run();
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    public void run() throws Exception {
+        var directory = Files.createTempDirectory("dreamjob-load");
+        Files.copy(Path.of("testdb.mv.db"), directory.resolve("load.mv.db"));
+        try (var context = start(directory)) {
+            base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            upload = new byte[Integer.parseInt(option("upload-size", "20000"))];
+            new Random(42).nextBytes(upload);
+            login();
+            seed(context, Integer.parseInt(option("vacancies", "500")));
+            createEndpoints(option("mix", "list:40,detail:30,file:20,create:5,candidates:5"));
+            var workers = Integer.parseInt(option("workers", "16"));
+            drive(workers, Duration.parse(option("warmup", "PT10S")));
+            endpoints.values().forEach(Endpoint::reset);
+            var duration = Duration.parse(option("duration", "PT60S"));
+            drive(workers, duration);
+            report(duration);
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    /* перезапуск devtools выключается системным свойством: аргументы командной строки он читает слишком поздно */
+    private ConfigurableApplicationContext start(Path directory) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        return new SpringApplication(Main.class).run(
+                "--server.port=0",
+                "--datasource.url=jdbc:h2:" + directory.resolve("load")
+                        + ";MODE=PostgreSQL;CASE_INSENSITIVE_IDENTIFIERS=TRUE;",
+                "--datasource.username=",
+                "--datasource.password=",
+                "--file.directory=" + directory.resolve("files"),
+                "--file.gc.enabled=false",
+                "--ratelimit.enabled=false",
+                "--logging.level.root=WARN");
+    }
+
+    private void login() throws IOException, InterruptedException {
+        var form = "email=load@example.ru&name=load&password=load";
+        post("/users/register", form);
+        var status = post("/users/login", form);
+        if (status != 302) {
+            throw new IllegalStateException("Вход не удался, статус " + status);
+        }
+    }
+
+    private int post(String path, String form) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /* вакансии создаются через HTTP, как пользователем, а их id и файлы берутся из репозитория */
+    private void seed(ConfigurableApplicationContext context, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            createVacancy(ThreadLocalRandom.current());
+        }
+        vacancies = new ArrayList<>(context.getBean(Sql2oVacancyRepository.class).findAll());
+        if (vacancies.isEmpty()) {
+            throw new IllegalStateException("Не удалось создать вакансии для прогона");
+        }
+    }
+
+    private void createEndpoints(String mix) {
+        for (var entry : mix.split(",")) {
+            var parts = entry.split(":");
+            var weight = Integer.parseInt(parts[1]);
+            switch (parts[0]) {
+                case "list" -> endpoints.put("GET /vacancies", new Endpoint(weight, 200,
+                        random -> get("/vacancies")));
+                case "candidates" -> endpoints.put("GET /candidates", new Endpoint(weight, 200,
+                        random -> get("/candidates")));
+                case "detail" -> endpoints.put("GET /vacancies/{id}", new Endpoint(weight, 200,
+                        random -> get("/vacancies/" + randomVacancy(random).getId())));
+                case "file" -> endpoints.put("GET /files/{id}", new Endpoint(weight, 200,
+                        random -> get("/files/" + randomVacancy(random).getFileId())));
+                case "create" -> endpoints.put("POST /vacancies/create", new Endpoint(weight, 302,
+                        this::createVacancy));
+                default -> throw new IllegalArgumentException("Неизвестный вид запроса: " + parts[0]);
+            }
+        }
+    }
+
+    private Vacancy randomVacancy(Random random) {
+        return vacancies.get(random.nextInt(vacancies.size()));
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        var request = HttpRequest.newBuilder(URI.create(base + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int createVacancy(Random random) throws IOException, InterruptedException {
+        var body = new ByteArrayOutputStream();
+        field(body, "title", "Java-разработчик " + random.nextInt(1000));
+        field(body, "description", "Разработка и поддержка сервисов, опыт работы от трёх лет");
+        field(body, "cityId", "1");
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; "
+                + "filename=\"photo.png\"\r\nContent-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.writeBytes(upload);
+        body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        var request = HttpRequest.newBuilder(URI.create(base + "/vacancies/create"))
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private static void field(ByteArrayOutputStream body, String name, String value) {
+        body.writeBytes(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void drive(int workers, Duration duration) throws InterruptedException {
+        var totalWeight = endpoints.values().stream().mapToInt(Endpoint::weight).sum();
+        var deadline = System.nanoTime() + duration.toNanos();
+        var threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            threads[i] = new Thread(() -> {
+                var random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    pick(random.nextInt(totalWeight)).call(random);
+                }
+            }, "load-" + i);
+            threads[i].start();
+        }
+        for (var thread : threads) {
+            thread.join();
+        }
+    }
+
+    private Endpoint pick(int point) {
+        for (var endpoint : endpoints.values()) {
+            point -= endpoint.weight();
+            if (point < 0) {
+                return endpoint;
+            }
+        }
+        throw new IllegalStateException("Пустая смесь запросов");
+    }
+
+    private void report(Duration duration) {
+        var seconds = duration.toMillis() / 1000.0;
+        System.out.printf("%-24s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (var entry : endpoints.entrySet()) {
+            var histogram = entry.getValue().histogram();
+            System.out.printf("%-24s %9d %9.1f %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    entry.getValue().errors().sum(), millis(histogram, 50), millis(histogram, 95),
+                    millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0);
+        }
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (var path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        int send(Random random) throws IOException, InterruptedException;
+    }
+
+    /* задержки в микросекундах с точностью три значащие цифры; ответ с неожиданным статусом
+    или исключение считается ошибкой, но его задержка тоже записывается */
+    private record Endpoint(int weight, int expectedStatus, Action action,
+                            Histogram histogram, LongAdder errors) {
+
+        Endpoint(int weight, int expectedStatus, Action action) {
+            this(weight, expectedStatus, action, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3), new LongAdder());
+        }
+
+        void call(Random random) {
+            var start = System.nanoTime();
+            try {
+                if (action.send(random) != expectedStatus) {
+                    errors.increment();
+                }
+            } catch (IOException e) {
+                errors.increment();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                errors.increment();
+            }
+            histogram.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1000));
+        }
+
+        void reset() {
+            histogram.reset();
+            errors.reset();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import ru.job4j.dreamjob.controller.IndexController;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandlerTimingInterceptorTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private final HandlerTimingInterceptor interceptor = new HandlerTimingInterceptor(registry);
+
+    @DisplayName("Запрос учитывается по классу и методу контроллера и статусу ответа")
+    @Test
+    void whenRequestCompletedThenDurationRecordedByHandlerAndStatus() throws Exception {
+        var handler = new HandlerMethod(new IndexController(), IndexController.class.getMethod("getIndex"));
+        var request = new MockHttpServletRequest("GET", "/index");
+        var response = new MockHttpServletResponse();
+        response.setStatus(302);
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(registry.getHttpRequests().labels("IndexController.getIndex", "302").getCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Запрос, завершившийся исключением, учитывается со статусом 500")
+    @Test
+    void whenHandlerThrowsThenStatusIs500() throws Exception {
+        var handler = new HandlerMethod(new IndexController(), IndexController.class.getMethod("getIndex"));
+        var request = new MockHttpServletRequest("GET", "/index");
+        var response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, new IllegalStateException());
+
+        assertThat(registry.getHttpRequests().getSeries()).containsOnlyKeys(
+                List.of("IndexController.getIndex", "500"));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyHistogramTest {
+
+    @DisplayName("Значения попадают в корзину с ближайшей сверху степенью двойки микросекунд")
+    @Test
+    void whenRecordThenCumulativeCountsByPowerOfTwoMicros() {
+        var histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.NANOSECONDS.toNanos(500));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(3));
+        histogram.record(TimeUnit.MICROSECONDS.toNanos(4));
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1));
+
+        var cumulative = histogram.getCumulativeCounts();
+        assertThat(cumulative[0]).isEqualTo(1);
+        assertThat(cumulative[1]).isEqualTo(1);
+        assertThat(cumulative[2]).isEqualTo(3);
+        assertThat(cumulative[9]).isEqualTo(3);
+        assertThat(cumulative[10]).isEqualTo(4);
+        assertThat(histogram.getUpperBoundSeconds(10)).isEqualTo(0.001024);
+        assertThat(histogram.getCount()).isEqualTo(4);
+        assertThat(histogram.getSumSeconds()).isBetween(0.001007, 0.001008);
+    }
+
+    @DisplayName("Очень долгие значения не попадают ни в одну ограниченную корзину, только в общий счётчик")
+    @Test
+    void whenRecordHugeValueThenOnlyTotalCount() {
+        var histogram = new LatencyHistogram();
+
+        histogram.record(TimeUnit.DAYS.toNanos(1));
+        histogram.record(TimeUnit.SECONDS.toNanos(2000));
+
+        var cumulative = histogram.getCumulativeCounts();
+        assertThat(cumulative).hasSize(histogram.getBucketCount());
+        assertThat(cumulative[histogram.getBucketCount() - 1]).isEqualTo(1);
+        assertThat(histogram.getUpperBoundSeconds(histogram.getBucketCount() - 1)).isEqualTo(2147.483648);
+        assertThat(histogram.getCount()).isEqualTo(2);
+    }
+}
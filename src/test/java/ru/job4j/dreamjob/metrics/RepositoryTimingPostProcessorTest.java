@@ -0,0 +1,65 @@
+package ru.job4j.dreamjob.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.stereotype.Repository;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.MemoryVacancyRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RepositoryTimingPostProcessorTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    private final RepositoryTimingPostProcessor postProcessor = new RepositoryTimingPostProcessor(registry);
+
+    @DisplayName("Вызовы методов репозитория замеряются по имени класса и метода, прокси остаётся подклассом")
+    @Test
+    void whenRepositoryCalledThenCallIsTimed() {
+        var proxy = postProcessor.postProcessAfterInitialization(new MemoryVacancyRepository(), "vacancyRepository");
+
+        assertThat(proxy).isInstanceOf(MemoryVacancyRepository.class);
+        var repository = (MemoryVacancyRepository) proxy;
+        repository.findById(1);
+        repository.findById(2);
+        repository.toString();
+
+        var calls = registry.getRepositoryCalls().getSeries();
+        assertThat(calls).containsOnlyKeys(List.of("MemoryVacancyRepository", "findById"));
+        assertThat(registry.getRepositoryCalls().labels("MemoryVacancyRepository", "findById").getCount())
+                .isEqualTo(2);
+        assertThat(registry.getRepositoryErrors().getSeries()).isEmpty();
+    }
+
+    @DisplayName("Исключение из репозитория пробрасывается дальше и учитывается в счётчике ошибок")
+    @Test
+    void whenRepositoryThrowsThenErrorIsCounted() {
+        var repository = (FailingRepository) postProcessor.postProcessAfterInitialization(
+                new FailingRepository(), "failingRepository");
+
+        assertThatThrownBy(() -> repository.save(new Vacancy())).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.getRepositoryErrors().labels("FailingRepository", "save").sum()).isEqualTo(1);
+        assertThat(registry.getRepositoryCalls().labels("FailingRepository", "save").getCount()).isEqualTo(1);
+    }
+
+    @DisplayName("Бины без @Repository возвращаются как есть")
+    @Test
+    void whenBeanIsNotRepositoryThenItIsNotWrapped() {
+        var bean = new Object();
+
+        assertThat(postProcessor.postProcessAfterInitialization(bean, "bean")).isSameAs(bean);
+    }
+
+    @Repository
+    static class FailingRepository {
+
+        public Vacancy save(Vacancy vacancy) {
+            throw new IllegalStateException("База недоступна");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package ru.job4j.dreamjob.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.sql2o.Sql2o;
+import org.sql2o.Sql2oException;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.model.City;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StatementStatisticsTest {
+
+    private InstrumentedDataSource dataSource;
+
+    private StatementStatistics statistics;
+
+    private Sql2o sql2o;
+
+    private final ListAppender<ILoggingEvent> log = new ListAppender<>();
+
+    @BeforeEach
+    public void initDatabaseClient() throws Exception {
+        var properties = new Properties();
+        try (var inputStream = StatementStatisticsTest.class.getClassLoader()
+                .getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        var configuration = new DatasourceConfiguration();
+        dataSource = configuration.connectionPool(properties.getProperty("datasource.url"),
+                properties.getProperty("datasource.username"), properties.getProperty("datasource.password"),
+                new DatasourcePoolProperties());
+        statistics = new StatementStatistics(Duration.ofHours(1), 100);
+        sql2o = configuration.databaseClient(statistics.wrap(dataSource));
+        log.start();
+        ((Logger) LoggerFactory.getLogger(StatementStatistics.class.getName())).addAppender(log);
+    }
+
+    @AfterEach
+    public void closePool() throws Exception {
+        ((Logger) LoggerFactory.getLogger(StatementStatistics.class.getName())).detachAppender(log);
+        dataSource.close();
+    }
+
+    private List<City> findCities(String sql, Object... ids) {
+        try (var connection = sql2o.open()) {
+            var query = connection.createQuery(sql);
+            if (ids.length == 1) {
+                query.addParameter("id", ids[0]);
+            } else {
+                query.addParameter("ids", List.of(ids));
+            }
+            return query.executeAndFetch(City.class);
+        }
+    }
+
+    @DisplayName("Выполнения одного запроса с разными значениями и длиной списка IN копятся в одном виде")
+    @Test
+    void whenSameQueryExecutedThenCountsAndRowsAccumulateInOneShape() {
+        findCities("SELECT * FROM cities WHERE id = :id", 1);
+        findCities("SELECT * FROM cities WHERE id = :id", 2);
+        findCities("SELECT * FROM cities WHERE id IN (:ids)", 1, 2);
+        findCities("SELECT  *  FROM cities\n WHERE id IN (:ids)", 1, 2, 3);
+
+        var top = statistics.getTop(10, StatementStatistics.Shape.BY_ROWS);
+
+        assertThat(top).extracting(StatementStatistics.Shape::getSql, StatementStatistics.Shape::getCount,
+                StatementStatistics.Shape::getRows).containsExactly(
+                tuple("SELECT * FROM cities WHERE id IN (?, ...)", 2L, 5L),
+                tuple("SELECT * FROM cities WHERE id = ?", 2L, 2L));
+        assertThat(top.get(0).getMaxNanos()).isPositive().isLessThanOrEqualTo(top.get(0).getTotalNanos());
+        assertThat(statistics.getDuration().getCount()).isEqualTo(4);
+        assertThat(statistics.getSlowStatements()).isZero();
+        assertThat(log.list).isEmpty();
+    }
+
+    @DisplayName("Изменяющий запрос учитывает затронутые строки, а упавший - ошибку")
+    @Test
+    void whenUpdateAndFailingQueryThenRowsAndErrorsRecorded() {
+        try (var connection = sql2o.open()) {
+            connection.createQuery("UPDATE cities SET name = name WHERE id IN (:ids)")
+                    .addParameter("ids", List.of(1, 2)).executeUpdate();
+        }
+        assertThatThrownBy(() -> findCities("SELECT * FROM missing_table WHERE id = :id", 1))
+                .isInstanceOf(Sql2oException.class);
+
+        var top = statistics.getTop(10, StatementStatistics.Shape.BY_ROWS);
+
+        assertThat(top.get(0).getSql()).isEqualTo("UPDATE cities SET name = name WHERE id IN (?, ...)");
+        assertThat(top.get(0).getRows()).isEqualTo(2);
+        assertThat(statistics.getErrors()).isEqualTo(1);
+    }
+
+    @DisplayName("Медленный запрос пишется в лог с типами параметров, но без их значений")
+    @Test
+    void whenQuerySlowerThanThresholdThenLoggedWithParameterTypes() {
+        statistics = new StatementStatistics(Duration.ZERO, 100);
+        sql2o = new DatasourceConfiguration().databaseClient(statistics.wrap(dataSource));
+
+        findCities("SELECT * FROM cities WHERE id = :id", 424242);
+
+        assertThat(statistics.getSlowStatements()).isEqualTo(1);
+        assertThat(log.list).hasSize(1);
+        var message = log.list.get(0).getFormattedMessage();
+        assertThat(message).contains("параметры (int)").contains("SELECT * FROM cities WHERE id = ?");
+        assertThat(message).doesNotContain("424242");
+    }
+
+    @DisplayName("Виды сверх лимита учитываются вместе как прочие запросы")
+    @Test
+    void whenShapeLimitReachedThenOtherShapeUsed() {
+        statistics = new StatementStatistics(Duration.ofHours(1), 1);
+        sql2o = new DatasourceConfiguration().databaseClient(statistics.wrap(dataSource));
+
+        findCities("SELECT * FROM cities WHERE id = :id", 1);
+        findCities("SELECT name FROM cities WHERE id = :id", 1);
+        findCities("SELECT id FROM cities WHERE id = :id", 1);
+
+        assertThat(statistics.getTop(10, StatementStatistics.Shape.BY_COUNT))
+                .extracting(StatementStatistics.Shape::getSql, StatementStatistics.Shape::getCount)
+                .containsExactly(tuple(StatementStatistics.OTHER_SHAPE, 2L),
+                        tuple("SELECT * FROM cities WHERE id = ?", 1L));
+    }
+}
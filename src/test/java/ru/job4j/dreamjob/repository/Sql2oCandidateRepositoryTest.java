@@ -8,9 +8,15 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.dto.CandidateSummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.Candidate;
 import ru.job4j.dreamjob.model.File;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -22,6 +28,7 @@ class Sql2oCandidateRepositoryTest {
     private static Sql2oCandidateRepository sql2oCandidateRepository;
     private static Sql2oFileRepository sql2oFileRepository;
     private static File file;
+    private static final StatementCounter STATEMENTS = new StatementCounter();
 
     @BeforeAll
     public static void initRepositories() throws Exception {
@@ -36,8 +43,8 @@ class Sql2oCandidateRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
-        var sql2o = configuration.databaseClient(datasource);
+        var datasource = configuration.connectionPool(url, username, password, new DatasourcePoolProperties());
+        var sql2o = configuration.databaseClient(STATEMENTS.wrap(datasource));
 
         sql2oCandidateRepository = new Sql2oCandidateRepository(sql2o);
         sql2oFileRepository = new Sql2oFileRepository(sql2o);
@@ -118,4 +125,71 @@ class Sql2oCandidateRepositoryTest {
         var isUpdated = sql2oCandidateRepository.update(candidate);
         assertThat(isUpdated).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindPagesThenNewestFirstWithTiesBrokenById() {
+        var older = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(1);
+        var newer = older.plusHours(1);
+        var candidate1 = sql2oCandidateRepository.save(new Candidate(0, "name1", "description1", older, 1, file.getId()));
+        var candidate2 = sql2oCandidateRepository.save(new Candidate(0, "name2", "description2", newer, 1, file.getId()));
+        var candidate3 = sql2oCandidateRepository.save(new Candidate(0, "name3", "description3", newer, 1, file.getId()));
+
+        var firstPage = sql2oCandidateRepository.findPage(null, new ListFilter(), 2);
+        var last = firstPage.get(firstPage.size() - 1);
+        var secondPage = sql2oCandidateRepository.findPage(new PageCursor(last.getCreationDate(), last.getId()), new ListFilter(), 2);
+
+        assertThat(firstPage).extracting(CandidateSummary::getId).containsExactly(candidate3.getId(), candidate2.getId());
+        assertThat(secondPage).extracting(CandidateSummary::getId).containsExactly(candidate1.getId());
+        assertThat(secondPage.get(0).getName()).isEqualTo(candidate1.getName());
+        assertThat(secondPage.get(0).getCreationDate()).isEqualTo(candidate1.getCreationDate());
+    }
+
+    @Test
+    void whenFindPageOfThousandRowsThenOneStatementWithCityNames() {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 0; i < 1000; i++) {
+            sql2oCandidateRepository.save(new Candidate(0, "name" + i, "description", creationDate.minusSeconds(i), 1, file.getId()));
+        }
+
+        STATEMENTS.reset();
+        var page = sql2oCandidateRepository.findPage(null, new ListFilter(), 1000);
+
+        assertThat(STATEMENTS.get()).isEqualTo(1);
+        assertThat(page).hasSize(1000);
+        assertThat(page).extracting(CandidateSummary::getCityName).containsOnly("Москва");
+    }
+
+    @Test
+    void whenSearchThenAllWordsMatchedNewestFirst() {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        var javaOld = sql2oCandidateRepository.save(new Candidate(0, "Java разработчик", "Пишем сервисы", creationDate.minusDays(1), 1, file.getId()));
+        var javaNew = sql2oCandidateRepository.save(new Candidate(0, "Разработчик", "Java и Spring", creationDate, 1, file.getId()));
+        sql2oCandidateRepository.save(new Candidate(0, "Python разработчик", "Пишем скрипты", creationDate, 1, file.getId()));
+        sql2oCandidateRepository.save(new Candidate(0, "Скидка 100%", "Только сегодня", creationDate, 1, file.getId()));
+
+        var firstPage = sql2oCandidateRepository.search("JAVA разработчик", 0, 1);
+        var secondPage = sql2oCandidateRepository.search("JAVA разработчик", 1, 1);
+
+        assertThat(firstPage).extracting(SearchHit::getId).containsExactly(javaNew.getId());
+        assertThat(firstPage.get(0).getTitle()).isEqualTo(javaNew.getName());
+        assertThat(secondPage).extracting(SearchHit::getId).containsExactly(javaOld.getId());
+        assertThat(sql2oCandidateRepository.search("0%", 0, 10)).extracting(SearchHit::getId).containsExactly(
+                sql2oCandidateRepository.search("скидка", 0, 10).get(0).getId());
+        assertThat(sql2oCandidateRepository.search("_", 0, 10)).isEmpty();
+        assertThat(sql2oCandidateRepository.search("  ", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void whenFindPageWithFilterThenOnlyMatchingCandidates() {
+        var day = LocalDateTime.of(2024, 3, 10, 12, 0);
+        var moscow = sql2oCandidateRepository.save(new Candidate(0, "n1", "d1", day, 1, file.getId()));
+        var otherCity = sql2oCandidateRepository.save(new Candidate(0, "n2", "d2", day, 2, file.getId()));
+        var older = sql2oCandidateRepository.save(new Candidate(0, "n3", "d3", day.minusDays(5), 1, file.getId()));
+
+        var inMoscow = sql2oCandidateRepository.findPage(null, new ListFilter(1, false, null, null), 10);
+        var sinceTenth = sql2oCandidateRepository.findPage(null, new ListFilter(null, null, LocalDate.of(2024, 3, 10), null), 10);
+
+        assertThat(inMoscow).extracting(CandidateSummary::getId).containsExactly(moscow.getId(), older.getId());
+        assertThat(sinceTenth).extracting(CandidateSummary::getId).containsExactly(otherCity.getId(), moscow.getId());
+    }
+}
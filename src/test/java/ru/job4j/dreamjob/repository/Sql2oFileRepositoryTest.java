@@ -0,0 +1,151 @@
+package ru.job4j.dreamjob.repository;
+
+import static java.util.Optional.empty;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.model.Vacancy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.*;
+
+class Sql2oFileRepositoryTest {
+
+    private static Sql2oFileRepository sql2oFileRepository;
+
+    private static Sql2oVacancyRepository sql2oVacancyRepository;
+
+    private final List<File> savedFiles = new ArrayList<>();
+
+    @BeforeAll
+    public static void initRepositories() throws Exception {
+        var properties = new Properties();
+        try (var inputStream = Sql2oFileRepositoryTest.class.getClassLoader()
+                .getResourceAsStream("connection.properties")) {
+            properties.load(inputStream);
+        }
+        var url = properties.getProperty("datasource.url");
+        var username = properties.getProperty("datasource.username");
+        var password = properties.getProperty("datasource.password");
+
+        var configuration = new DatasourceConfiguration();
+        var datasource = configuration.connectionPool(url, username, password, new DatasourcePoolProperties());
+        var sql2o = configuration.databaseClient(datasource);
+
+        sql2oFileRepository = new Sql2oFileRepository(sql2o);
+        sql2oVacancyRepository = new Sql2oVacancyRepository(sql2o);
+    }
+
+    @AfterEach
+    public void clearFiles() {
+        sql2oVacancyRepository.findAll().forEach(vacancy -> sql2oVacancyRepository.deleteById(vacancy.getId()));
+        savedFiles.forEach(file -> sql2oFileRepository.deleteById(file.getId()));
+        savedFiles.clear();
+    }
+
+    private File save(File file) {
+        savedFiles.add(sql2oFileRepository.save(file));
+        return file;
+    }
+
+    @Test
+    void whenSaveThenFindSameFileWithHashAndDate() {
+        var file = save(new File("name.png", "files/repository-test-1", "abc", 3));
+
+        var savedFile = sql2oFileRepository.findById(file.getId()).get();
+
+        assertThat(savedFile).usingRecursiveComparison().isEqualTo(file);
+    }
+
+    @Test
+    void whenSeveralFilesShareBlobThenCountThem() {
+        var first = save(new File("a.png", "files/repository-test-shared", "abc", 3));
+        save(new File("b.png", "files/repository-test-shared", "abc", 3));
+
+        assertThat(sql2oFileRepository.countByPath("files/repository-test-shared")).isEqualTo(2);
+
+        sql2oFileRepository.deleteById(first.getId());
+        assertThat(sql2oFileRepository.countByPath("files/repository-test-shared")).isEqualTo(1);
+    }
+
+    @Test
+    void whenNoFilesWithPathThenCountIsZero() {
+        assertThat(sql2oFileRepository.countByPath("files/repository-test-missing")).isZero();
+        assertThat(sql2oFileRepository.findById(0)).isEqualTo(empty());
+    }
+
+    @Test
+    void whenFindAllAfterIdThenReceiveNextFilesInIdOrder() {
+        var first = save(new File("a.png", "files/repository-test-a", "a", 3));
+        var second = save(new File("b.png", "files/repository-test-b", "b", 3));
+        var third = save(new File("c.png", "files/repository-test-c", "c", 3));
+
+        var result = sql2oFileRepository.findAllAfterId(first.getId(), 2);
+
+        assertThat(result).containsExactly(second, third);
+    }
+
+    @Test
+    void whenUpdatePathThenAllReferencesMoved() {
+        var first = save(new File("a.png", "files/repository-test-old", "a", 3));
+        var second = save(new File("b.png", "files/repository-test-old", "a", 3));
+
+        sql2oFileRepository.updatePath("files/repository-test-old", "files/ab/repository-test-old");
+
+        assertThat(sql2oFileRepository.findById(first.getId()).get().getPath())
+                .isEqualTo("files/ab/repository-test-old");
+        assertThat(sql2oFileRepository.findById(second.getId()).get().getPath())
+                .isEqualTo("files/ab/repository-test-old");
+    }
+
+    @Test
+    void whenFindUnreferencedThenOnlyOldFilesWithoutVacancyOrCandidate() {
+        var old = LocalDateTime.now().minusDays(2);
+        var referenced = save(createdAt(new File("a.png", "files/repository-test-a", "a", 3), old));
+        var orphan = save(createdAt(new File("b.png", "files/repository-test-b", "b", 3), old));
+        var fresh = save(new File("c.png", "files/repository-test-c", "c", 3));
+        sql2oVacancyRepository.save(new Vacancy(0, "title", "description", old, true, 1, referenced.getId()));
+
+        var result = sql2oFileRepository.findUnreferencedAfterId(0, LocalDateTime.now().minusDays(1), 10);
+
+        assertThat(result).containsExactly(orphan);
+        assertThat(result).doesNotContain(fresh);
+    }
+
+    @Test
+    void whenDeleteIfUnreferencedThenReferencedFileKept() {
+        var referenced = save(new File("a.png", "files/repository-test-a", "a", 3));
+        var orphan = save(new File("b.png", "files/repository-test-b", "b", 3));
+        sql2oVacancyRepository.save(new Vacancy(0, "title", "description", LocalDateTime.now(), true, 1,
+                referenced.getId()));
+
+        assertThat(sql2oFileRepository.deleteByIdIfUnreferenced(referenced.getId())).isFalse();
+        assertThat(sql2oFileRepository.deleteByIdIfUnreferenced(orphan.getId())).isTrue();
+        assertThat(sql2oFileRepository.findById(referenced.getId())).isPresent();
+        assertThat(sql2oFileRepository.findById(orphan.getId())).isEmpty();
+    }
+
+    @Test
+    void whenFindExistingPathsThenOnlyPathsWithRows() {
+        save(new File("a.png", "files/repository-test-a", "a", 3));
+        save(new File("b.png", "files/repository-test-a", "a", 3));
+
+        var result = sql2oFileRepository.findExistingPaths(List.of("files/repository-test-a", "files/repository-test-x"));
+
+        assertThat(result).containsExactly("files/repository-test-a");
+        assertThat(sql2oFileRepository.findExistingPaths(List.of())).isEmpty();
+    }
+
+    private File createdAt(File file, LocalDateTime creationDate) {
+        file.setCreationDate(creationDate.withNano(0));
+        return file;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
 import ru.job4j.dreamjob.model.User;
 
 import java.util.List;
@@ -29,7 +30,7 @@ class Sql2oUserRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
+        var datasource = configuration.connectionPool(url, username, password, new DatasourcePoolProperties());
         var sql2o = configuration.databaseClient(datasource);
 
         sql2oUserRepository = new Sql2oUserRepository(sql2o);
@@ -44,7 +45,7 @@ class Sql2oUserRepositoryTest {
     public void whenSaveUserThenReceiveIt() {
         var user = new User(0, "u", "u", "u");
         sql2oUserRepository.save(user);
-        var result = sql2oUserRepository.findByEmailAndPassword("u", "u");
+        var result = sql2oUserRepository.findByEmail("u");
         assertThat(result.get()).usingRecursiveComparison().isEqualTo(user);
     }
 
@@ -54,8 +55,8 @@ class Sql2oUserRepositoryTest {
         var user2 = new User(0, "u2", "u", "r");
         sql2oUserRepository.save(user1);
         sql2oUserRepository.save(user2);
-        var result1 = sql2oUserRepository.findByEmailAndPassword("u", "p").get();
-        var result2 = sql2oUserRepository.findByEmailAndPassword("u2", "r").get();
+        var result1 = sql2oUserRepository.findByEmail("u").get();
+        var result2 = sql2oUserRepository.findByEmail("u2").get();
         assertThat(List.of(user1, user2)).usingRecursiveComparison().isEqualTo(List.of(result1, result2));
     }
 
@@ -65,8 +66,8 @@ class Sql2oUserRepositoryTest {
         var user2 = new User(0, "u2", "u2", "p");
         sql2oUserRepository.save(user1);
         sql2oUserRepository.save(user2);
-        var result1 = sql2oUserRepository.findByEmailAndPassword("u", "p").get();
-        var result2 = sql2oUserRepository.findByEmailAndPassword("u2", "p").get();
+        var result1 = sql2oUserRepository.findByEmail("u").get();
+        var result2 = sql2oUserRepository.findByEmail("u2").get();
         assertThat(List.of(user1, user2)).usingRecursiveComparison().isEqualTo(List.of(result1, result2));
     }
 
@@ -76,12 +77,37 @@ class Sql2oUserRepositoryTest {
         var user2 = new User(0, "u", "u2", "p2");
         sql2oUserRepository.save(user1);
         sql2oUserRepository.save(user2);
-        assertThat(sql2oUserRepository.findByEmailAndPassword("u", "u2")).isEmpty();
-
+        assertThat(sql2oUserRepository.findByEmail("u").get()).usingRecursiveComparison().isEqualTo(user1);
     }
 
     @Test
     public void whenSaveNothingThenReceiveNothing() {
-        assertThat(sql2oUserRepository.findByEmailAndPassword("e", "p")).isEqualTo(empty());
+        assertThat(sql2oUserRepository.findByEmail("e")).isEqualTo(empty());
+    }
+
+    @Test
+    public void whenUpdatePasswordThenReceiveNewOne() {
+        var user = new User(0, "u", "u", "p");
+        sql2oUserRepository.save(user);
+        assertThat(sql2oUserRepository.updatePassword(user.getId(), "hash")).isTrue();
+        assertThat(sql2oUserRepository.findByEmail("u").get().getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    public void whenUpdatePasswordOfUnknownUserThenFalse() {
+        assertThat(sql2oUserRepository.updatePassword(-1, "hash")).isFalse();
+    }
+
+    @Test
+    public void whenFindAllAfterIdThenReceiveNextUsersInIdOrder() {
+        var user1 = new User(0, "u1", "u", "p");
+        var user2 = new User(0, "u2", "u", "p");
+        var user3 = new User(0, "u3", "u", "p");
+        sql2oUserRepository.save(user1);
+        sql2oUserRepository.save(user2);
+        sql2oUserRepository.save(user3);
+        assertThat(sql2oUserRepository.findAllAfterId(user1.getId(), 10))
+                .extracting(User::getEmail).containsExactly("u2", "u3");
+        assertThat(sql2oUserRepository.findAllAfterId(0, 2)).extracting(User::getEmail).containsExactly("u1", "u2");
     }
-}
\ No newline at end of file
+}
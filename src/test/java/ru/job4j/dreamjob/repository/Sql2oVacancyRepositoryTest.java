@@ -8,9 +8,15 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import ru.job4j.dreamjob.configuration.DatasourceConfiguration;
+import ru.job4j.dreamjob.configuration.DatasourcePoolProperties;
+import ru.job4j.dreamjob.dto.VacancySummary;
+import ru.job4j.dreamjob.dto.ListFilter;
+import ru.job4j.dreamjob.dto.PageCursor;
+import ru.job4j.dreamjob.dto.SearchHit;
 import ru.job4j.dreamjob.model.File;
 import ru.job4j.dreamjob.model.Vacancy;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -23,6 +29,7 @@ class Sql2oVacancyRepositoryTest {
     private static Sql2oVacancyRepository sql2oVacancyRepository;
     private static Sql2oFileRepository sql2oFileRepository;
     private static File file;
+    private static final StatementCounter STATEMENTS = new StatementCounter();
 
     @BeforeAll
     public static void initRepositories() throws Exception {
@@ -36,8 +43,8 @@ class Sql2oVacancyRepositoryTest {
         var password = properties.getProperty("datasource.password");
 
         var configuration = new DatasourceConfiguration();
-        var datasource = configuration.connectionPool(url, username, password);
-        var sql2o = configuration.databaseClient(datasource);
+        var datasource = configuration.connectionPool(url, username, password, new DatasourcePoolProperties());
+        var sql2o = configuration.databaseClient(STATEMENTS.wrap(datasource));
 
         sql2oVacancyRepository = new Sql2oVacancyRepository(sql2o);
         sql2oFileRepository = new Sql2oFileRepository(sql2o);
@@ -116,4 +123,79 @@ class Sql2oVacancyRepositoryTest {
         var isUpdated = sql2oVacancyRepository.update(vacancy);
         assertThat(isUpdated).isFalse();
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenFindPagesThenNewestFirstWithTiesBrokenById() {
+        var older = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusDays(1);
+        var newer = older.plusHours(1);
+        var vacancy1 = sql2oVacancyRepository.save(new Vacancy(0, "title1", "description1", older, true, 1, file.getId()));
+        var vacancy2 = sql2oVacancyRepository.save(new Vacancy(0, "title2", "description2", newer, true, 1, file.getId()));
+        var vacancy3 = sql2oVacancyRepository.save(new Vacancy(0, "title3", "description3", newer, true, 1, file.getId()));
+
+        var firstPage = sql2oVacancyRepository.findPage(null, new ListFilter(), 2);
+        var last = firstPage.get(firstPage.size() - 1);
+        var secondPage = sql2oVacancyRepository.findPage(new PageCursor(last.getCreationDate(), last.getId()), new ListFilter(), 2);
+
+        assertThat(firstPage).extracting(VacancySummary::getId).containsExactly(vacancy3.getId(), vacancy2.getId());
+        assertThat(secondPage).extracting(VacancySummary::getId).containsExactly(vacancy1.getId());
+        assertThat(secondPage.get(0).getTitle()).isEqualTo(vacancy1.getTitle());
+        assertThat(secondPage.get(0).getCreationDate()).isEqualTo(vacancy1.getCreationDate());
+    }
+
+    @Test
+    void whenFindPageOfThousandRowsThenOneStatementWithCityNames() {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 0; i < 1000; i++) {
+            sql2oVacancyRepository.save(new Vacancy(0, "title" + i, "description", creationDate.minusSeconds(i), true, 1, file.getId()));
+        }
+
+        STATEMENTS.reset();
+        var page = sql2oVacancyRepository.findPage(null, new ListFilter(), 1000);
+
+        assertThat(STATEMENTS.get()).isEqualTo(1);
+        assertThat(page).hasSize(1000);
+        assertThat(page).extracting(VacancySummary::getCityName).containsOnly("Москва");
+    }
+
+    @Test
+    void whenSearchThenAllWordsMatchedNewestFirst() {
+        var creationDate = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        var javaOld = sql2oVacancyRepository.save(new Vacancy(0, "Java разработчик", "Пишем сервисы", creationDate.minusDays(1), true, 1, file.getId()));
+        var javaNew = sql2oVacancyRepository.save(new Vacancy(0, "Разработчик", "Java и Spring", creationDate, true, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "Python разработчик", "Пишем скрипты", creationDate, true, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "Скидка 100%", "Только сегодня", creationDate, true, 1, file.getId()));
+
+        var firstPage = sql2oVacancyRepository.search("JAVA разработчик", 0, 1);
+        var secondPage = sql2oVacancyRepository.search("JAVA разработчик", 1, 1);
+
+        assertThat(firstPage).extracting(SearchHit::getId).containsExactly(javaNew.getId());
+        assertThat(firstPage.get(0).getTitle()).isEqualTo(javaNew.getTitle());
+        assertThat(secondPage).extracting(SearchHit::getId).containsExactly(javaOld.getId());
+        assertThat(sql2oVacancyRepository.search("0%", 0, 10)).extracting(SearchHit::getId).containsExactly(
+                sql2oVacancyRepository.search("скидка", 0, 10).get(0).getId());
+        assertThat(sql2oVacancyRepository.search("_", 0, 10)).isEmpty();
+        assertThat(sql2oVacancyRepository.search("  ", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void whenFindPageWithFilterThenOnlyMatchingVacancies() {
+        var day = LocalDateTime.of(2024, 3, 10, 12, 0);
+        var moscowVisible = sql2oVacancyRepository.save(new Vacancy(0, "t1", "d1", day, true, 1, file.getId()));
+        sql2oVacancyRepository.save(new Vacancy(0, "t2", "d2", day, false, 1, file.getId()));
+        var otherCity = sql2oVacancyRepository.save(new Vacancy(0, "t3", "d3", day.plusDays(1), true, 2, file.getId()));
+        var older = sql2oVacancyRepository.save(new Vacancy(0, "t4", "d4", day.minusDays(5), true, 1, file.getId()));
+
+        var moscowAndVisible = sql2oVacancyRepository.findPage(null, new ListFilter(1, true, null, null), 10);
+        var onTenthOrLater = sql2oVacancyRepository.findPage(null,
+                new ListFilter(null, true, LocalDate.of(2024, 3, 10), LocalDate.of(2024, 3, 11)), 10);
+        var upToTenth = sql2oVacancyRepository.findPage(null, new ListFilter(1, true, null, LocalDate.of(2024, 3, 10)), 1);
+        var last = upToTenth.get(0);
+        var nextPage = sql2oVacancyRepository.findPage(new PageCursor(last.getCreationDate(), last.getId()),
+                new ListFilter(1, true, null, LocalDate.of(2024, 3, 10)), 1);
+
+        assertThat(moscowAndVisible).extracting(VacancySummary::getId).containsExactly(moscowVisible.getId(), older.getId());
+        assertThat(onTenthOrLater).extracting(VacancySummary::getId).containsExactly(otherCity.getId(), moscowVisible.getId());
+        assertThat(upToTenth).extracting(VacancySummary::getId).containsExactly(moscowVisible.getId());
+        assertThat(nextPage).extracting(VacancySummary::getId).containsExactly(older.getId());
+    }
+}
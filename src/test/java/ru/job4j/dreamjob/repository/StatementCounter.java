@@ -0,0 +1,60 @@
+package ru.job4j.dreamjob.repository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/* Обёртка над пулом для тестов: считает подготовленные запросы,
+   чтобы проверять отсутствие N+1 при выборке страниц */
+class StatementCounter {
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            var result = invoke(target, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private Connection wrap(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            if (method.getName().endsWith("Statement") || method.getName().equals("prepareCall")) {
+                statements.incrementAndGet();
+            }
+            return invoke(target, method, args);
+        });
+    }
+
+    int get() {
+        return statements.get();
+    }
+
+    void reset() {
+        statements.set(0);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, TargetHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] {type},
+                invocationHandler);
+    }
+
+    @FunctionalInterface
+    private interface TargetHandler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.job4j.dreamjob.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.SearchHit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex(new Tokenizer());
+
+    @DisplayName("Русские и английские слова приводятся к общей основе, служебные слова отбрасываются")
+    @Test
+    void whenTokenizeThenStemsWithoutStopWords() {
+        var tokenizer = new Tokenizer();
+
+        assertThat(tokenizer.tokenize("Ищем разработчиков и программистов на Java"))
+                .containsExactly("ищем", "разработчик", "программист", "java");
+        assertThat(tokenizer.tokenize("разработчика, РАЗРАБОТЧИК")).containsExactly("разработчик", "разработчик");
+        assertThat(tokenizer.tokenize("Senior developers for the developing services"))
+                .containsExactly("senior", "develop", "develop", "servic");
+        assertThat(tokenizer.tokenize("C++ и C#, ёлка")).containsExactly("c++", "c#", "елк");
+    }
+
+    @DisplayName("Документ находится по словоформе, документ с редким термом выше")
+    @Test
+    void whenSearchThenRankedByBm25() {
+        index.put(1, "Java разработчик", "Java разработчик", "Пишем сервисы на Java");
+        index.put(2, "Python разработчик", "Python разработчик", "Пишем сервисы на Python");
+        index.put(3, "Тестировщик", "Тестировщик", "Проверяем сервисы");
+
+        var hits = index.search("java разработчика", 0, 10);
+
+        assertThat(hits).extracting(SearchHit::getId).containsExactly(1, 2);
+        assertThat(hits.get(0).getTitle()).isEqualTo("Java разработчик");
+        assertThat(hits.get(0).getScore()).isGreaterThan(hits.get(1).getScore());
+        assertThat(index.search("бухгалтер", 0, 10)).isEmpty();
+        assertThat(index.search("и на", 0, 10)).isEmpty();
+    }
+
+    @DisplayName("Результаты листаются смещением, при равной релевантности новые документы выше")
+    @Test
+    void whenSearchWithOffsetThenNextHits() {
+        for (int id = 1; id <= 5; id++) {
+            index.put(id, "Вакансия " + id, "Аналитик данных");
+        }
+
+        assertThat(index.search("аналитик", 0, 2)).extracting(SearchHit::getId).containsExactly(5, 4);
+        assertThat(index.search("аналитик", 2, 2)).extracting(SearchHit::getId).containsExactly(3, 2);
+        assertThat(index.search("аналитик", 4, 2)).extracting(SearchHit::getId).containsExactly(1);
+        assertThat(index.search("аналитик", 6, 2)).isEmpty();
+    }
+
+    @DisplayName("Изменённый документ ищется по новому тексту, удалённый не находится")
+    @Test
+    void whenUpdateAndRemoveThenIndexFollows() {
+        index.put(1, "Java разработчик", "Java разработчик");
+        index.put(2, "Kotlin разработчик", "Kotlin разработчик");
+
+        index.put(1, "Go разработчик", "Go разработчик");
+        index.remove(2);
+        index.put(3, "Kotlin аналитик", "Kotlin аналитик");
+
+        assertThat(index.search("java", 0, 10)).isEmpty();
+        assertThat(index.search("go разработчик", 0, 10)).extracting(SearchHit::getId).containsExactly(1);
+        assertThat(index.search("kotlin", 0, 10)).extracting(SearchHit::getId).containsExactly(3);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,58 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.City;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CachedCityServiceTest {
+
+    private final SimpleCityService simpleCityService = mock(SimpleCityService.class);
+
+    @DisplayName("Справочник загружается при создании и дальше отдаётся из памяти")
+    @Test
+    void whenFindSeveralTimesThenLoadedOnce() {
+        when(simpleCityService.findAll()).thenReturn(List.of(new City(1, "Москва"), new City(2, "Санкт-Петербург")));
+
+        var cityService = new CachedCityService(simpleCityService, Duration.ofMinutes(10));
+        var cities = cityService.findAll();
+        cityService.findAll();
+        var city = cityService.findById(2);
+
+        assertThat(cities).extracting(City::getName).containsExactly("Москва", "Санкт-Петербург");
+        assertThat(city.get().getName()).isEqualTo("Санкт-Петербург");
+        assertThat(cityService.findById(3)).isEmpty();
+        verify(simpleCityService, times(1)).findAll();
+    }
+
+    @DisplayName("По истечении TTL справочник перечитывается, а при ошибке остаётся прежний")
+    @Test
+    void whenTtlExpiredThenReloadedAndStaleKeptOnError() {
+        when(simpleCityService.findAll())
+                .thenReturn(List.of(new City(1, "Москва")))
+                .thenThrow(new IllegalStateException("База недоступна"));
+        var cityService = new CachedCityService(simpleCityService, Duration.ZERO);
+
+        var cities = cityService.findAll();
+
+        assertThat(cities).extracting(City::getName).containsExactly("Москва");
+        verify(simpleCityService, times(2)).findAll();
+    }
+
+    @DisplayName("Снимок справочника нельзя изменить снаружи")
+    @Test
+    void whenModifySnapshotThenUnsupported() {
+        when(simpleCityService.findAll()).thenReturn(List.of(new City(1, "Москва")));
+        var cityService = new CachedCityService(simpleCityService, Duration.ofMinutes(10));
+
+        assertThat(cityService.findAll()).isUnmodifiable();
+    }
+}
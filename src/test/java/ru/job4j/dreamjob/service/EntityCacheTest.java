@@ -0,0 +1,122 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EntityCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private Optional<String> load(int id) {
+        loads.incrementAndGet();
+        return id > 0 ? Optional.of("entity" + id) : Optional.empty();
+    }
+
+    @DisplayName("Повторное чтение берётся из кэша, отсутствующие сущности не кэшируются")
+    @Test
+    void whenGetTwiceThenLoadedOnce() {
+        var cache = new EntityCache<String>("test", 10, Duration.ofMinutes(1));
+
+        assertThat(cache.get(1, this::load)).contains("entity1");
+        assertThat(cache.get(1, this::load)).contains("entity1");
+        assertThat(cache.get(0, this::load)).isEmpty();
+        assertThat(cache.get(0, this::load)).isEmpty();
+
+        assertThat(loads.get()).isEqualTo(3);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(3);
+    }
+
+    @DisplayName("При переполнении вытесняется давно не читанная запись")
+    @Test
+    void whenFullThenLeastRecentlyUsedEvicted() {
+        var cache = new EntityCache<String>("test", 2, Duration.ofMinutes(1));
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+
+        cache.get(3, this::load);
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+
+        assertThat(cache.getSize()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @DisplayName("Устаревшая запись перечитывается и считается вытесненной")
+    @Test
+    void whenTtlExpiredThenReloaded() {
+        var cache = new EntityCache<String>("test", 10, Duration.ZERO);
+
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getHits()).isZero();
+    }
+
+    @DisplayName("Загрузка, начатая до инвалидации, не кладёт в кэш устаревшее значение")
+    @Test
+    void whenInvalidatedDuringLoadThenValueNotCached() {
+        var cache = new EntityCache<String>("test", 10, Duration.ofMinutes(1));
+
+        cache.get(1, id -> {
+            cache.invalidate(id);
+            return Optional.of("stale");
+        });
+
+        assertThat(cache.get(1, this::load)).contains("entity1");
+    }
+
+    @DisplayName("Нулевой размер отключает кэш")
+    @Test
+    void whenMaxSizeZeroThenAlwaysLoaded() {
+        var cache = new EntityCache<String>("test", 0, Duration.ofMinutes(1));
+
+        cache.get(1, this::load);
+        cache.get(1, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.getSize()).isZero();
+    }
+
+    @DisplayName("Вакансия читается из базы один раз, а после изменения и удаления перечитывается")
+    @Test
+    void whenVacancyUpdatedOrDeletedThenCacheInvalidated() {
+        var repository = mock(VacancyRepository.class);
+        var fileService = mock(FileService.class);
+        var vacancy = new Vacancy(1, "title", "description", LocalDateTime.now(), true, 1, 2);
+        when(repository.findById(1)).thenReturn(Optional.of(vacancy));
+        when(repository.update(any())).thenReturn(true);
+        var vacancyService = new SimpleVacancyService(repository, fileService,
+                new EntityCache<>("vacancies", 10, Duration.ofMinutes(1)), mock(SearchService.class));
+
+        vacancyService.findById(1);
+        vacancyService.findById(1);
+        vacancyService.update(vacancy, new FileDto("", new byte[0]));
+        vacancyService.findById(1);
+        vacancyService.deleteById(1);
+        when(repository.findById(1)).thenReturn(Optional.empty());
+
+        assertThat(vacancyService.findById(1)).isEmpty();
+        verify(repository, times(3)).findById(1);
+        verify(fileService).deleteById(2);
+    }
+}
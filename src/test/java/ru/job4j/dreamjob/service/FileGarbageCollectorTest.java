@@ -0,0 +1,109 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.model.File;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileGarbageCollectorTest {
+
+    @TempDir
+    Path storageDirectory;
+
+    private MemoryFileRepository fileRepository;
+
+    private ThumbnailGenerator thumbnails;
+
+    private SimpleFileService fileService;
+
+    private FileGarbageCollector collector;
+
+    @BeforeEach
+    public void initServices() {
+        fileRepository = new MemoryFileRepository();
+        thumbnails = new ThumbnailGenerator(new int[] {160}, 1, 1);
+        var layout = new FileStorageLayout(storageDirectory.toString(), 0);
+        fileService = new SimpleFileService(fileRepository, layout, SimpleFileService.UUID_MODE, ThumbnailGenerator.disabled());
+        collector = new FileGarbageCollector(fileService, fileRepository, layout, thumbnails,
+                Duration.ofHours(1), 2, Duration.ZERO);
+    }
+
+    @AfterEach
+    public void shutdown() {
+        thumbnails.shutdown();
+    }
+
+    @DisplayName("Старые файлы без строки удаляются, а свежие и занятые остаются")
+    @Test
+    void whenCollectThenOnlyOldOrphansReclaimed() throws Exception {
+        var saved = fileService.save(new FileDto("a.png", new byte[] {1, 2, 3}));
+        var savedThumbnail = Path.of(saved.getPath() + ".w160.jpg");
+        var orphan = storageDirectory.resolve("orphan.png");
+        var orphanThumbnail = storageDirectory.resolve("orphan.png.w160.jpg");
+        var staleUpload = storageDirectory.resolve(".upload-stale");
+        var freshOrphan = storageDirectory.resolve("fresh.png");
+        Files.write(savedThumbnail, new byte[] {1});
+        Files.write(orphan, new byte[] {1, 2});
+        Files.write(orphanThumbnail, new byte[] {1});
+        Files.write(staleUpload, new byte[] {1, 2, 3, 4});
+        Files.write(freshOrphan, new byte[] {1});
+        for (var path : new Path[] {Path.of(saved.getPath()), savedThumbnail, orphan, orphanThumbnail, staleUpload}) {
+            makeOld(path);
+        }
+
+        collector.collect();
+
+        assertThat(Files.exists(Path.of(saved.getPath()))).isTrue();
+        assertThat(Files.exists(savedThumbnail)).isTrue();
+        assertThat(Files.exists(freshOrphan)).isTrue();
+        assertThat(Files.exists(orphan)).isFalse();
+        assertThat(Files.exists(orphanThumbnail)).isFalse();
+        assertThat(Files.exists(staleUpload)).isFalse();
+        assertThat(collector.getRuns()).isEqualTo(1);
+        assertThat(collector.getReclaimedBlobs()).isEqualTo(3);
+        assertThat(collector.getReclaimedBytes()).isEqualTo(7);
+    }
+
+    @DisplayName("Загруженный файл с именем как у миниатюры не удаляется")
+    @Test
+    void whenFileNamedLikeThumbnailHasRowThenKept() throws Exception {
+        var path = storageDirectory.resolve("photo.png.w160.jpg");
+        Files.write(path, new byte[] {1});
+        makeOld(path);
+        fileRepository.save(new File("photo.png.w160.jpg", path.toString()));
+
+        collector.collect();
+
+        assertThat(Files.exists(path)).isTrue();
+        assertThat(collector.getReclaimedBlobs()).isZero();
+    }
+
+    @DisplayName("Если строки files указывают в другой каталог, каталог не чистится")
+    @Test
+    void whenRowsPointToOtherDirectoryThenNothingDeleted() throws Exception {
+        fileRepository.save(new File("a.png", "other/a.png"));
+        var orphan = storageDirectory.resolve("orphan.png");
+        Files.write(orphan, new byte[] {1});
+        makeOld(orphan);
+
+        collector.collect();
+
+        assertThat(Files.exists(orphan)).isTrue();
+    }
+
+    private void makeOld(Path path) throws Exception {
+        Files.setLastModifiedTime(path, FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.dto.SearchHit;
+import ru.job4j.dreamjob.model.Vacancy;
+import ru.job4j.dreamjob.repository.CandidateRepository;
+import ru.job4j.dreamjob.repository.VacancyRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MemorySearchServiceTest {
+
+    private VacancyRepository vacancyRepository;
+
+    private MemorySearchService searchService;
+
+    @BeforeEach
+    public void initService() {
+        vacancyRepository = mock(VacancyRepository.class);
+        var candidateRepository = mock(CandidateRepository.class);
+        when(candidateRepository.findAllAfterId(anyInt(), anyInt())).thenReturn(List.of());
+        searchService = new MemorySearchService(vacancyRepository, candidateRepository, 10);
+    }
+
+    private static Vacancy vacancy(int id, String title) {
+        return new Vacancy(id, title, "Описание", LocalDateTime.now(), true, 1, 0);
+    }
+
+    private List<Integer> search(String query) {
+        return searchService.searchVacancies(query, null, 10).getItems().stream().map(SearchHit::getId).toList();
+    }
+
+    @DisplayName("Изменение и удаление, пришедшие после чтения порции, не затираются построением индекса")
+    @Test
+    void whenVacancyChangedDuringBuildThenLiveVersionWins() {
+        when(vacancyRepository.findAllAfterId(eq(0), anyInt())).thenAnswer(invocation -> {
+            var batch = List.of(vacancy(1, "Повар"), vacancy(2, "Сварщик"), vacancy(3, "Водитель"));
+            searchService.index(vacancy(1, "Кондитер"));
+            searchService.removeVacancy(2);
+            return batch;
+        });
+
+        searchService.run(null);
+
+        assertThat(search("повар")).isEmpty();
+        assertThat(search("кондитер")).containsExactly(1);
+        assertThat(search("сварщик")).isEmpty();
+        assertThat(search("водитель")).containsExactly(3);
+    }
+
+    @DisplayName("После построения индекса изменения применяются как обычно")
+    @Test
+    void whenVacancyChangedAfterBuildThenIndexUpdated() {
+        when(vacancyRepository.findAllAfterId(eq(0), anyInt())).thenReturn(List.of(vacancy(1, "Повар")));
+        searchService.run(null);
+
+        searchService.index(vacancy(2, "Сварщик"));
+        searchService.removeVacancy(1);
+
+        assertThat(search("сварщик")).containsExactly(2);
+        assertThat(search("повар")).isEmpty();
+    }
+}
@@ -0,0 +1,67 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordMigrationTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(4, 1, 10, Duration.ofSeconds(10), false);
+
+    @AfterEach
+    void closeHasher() {
+        passwordHasher.close();
+    }
+
+    @DisplayName("Все пароли открытым текстом заменяются хэшами, уже хэшированные не трогаются")
+    @Test
+    void whenMigrateThenEveryPlaintextPasswordIsHashed() {
+        var hash = passwordHasher.hash("third");
+        when(userRepository.findAllAfterId(0, 2)).thenReturn(List.of(
+                new User(1, "a", "a", "first"), new User(2, "b", "b", hash)));
+        when(userRepository.findAllAfterId(2, 2)).thenReturn(List.of(new User(5, "c", "c", "second")));
+        when(userRepository.updatePassword(anyInt(), anyString())).thenReturn(true);
+
+        var hashed = new PasswordMigration(userRepository, passwordHasher, 2).migrate();
+
+        assertThat(hashed).isEqualTo(2);
+        verify(userRepository).updatePassword(eq(1), startsWith("$2a$04$"));
+        verify(userRepository).updatePassword(eq(5), startsWith("$2a$04$"));
+        verify(userRepository, never()).updatePassword(eq(2), anyString());
+        verify(userRepository, times(2)).findAllAfterId(anyInt(), eq(2));
+    }
+
+    @DisplayName("Хэш, записанный миграцией, принимается при входе с исходным паролем")
+    @Test
+    void whenMigratedThenOriginalPasswordMatches() {
+        var stored = new String[1];
+        when(userRepository.findAllAfterId(0, 10)).thenReturn(List.of(new User(1, "a", "a", "secret")));
+        when(userRepository.updatePassword(eq(1), anyString())).thenAnswer(invocation -> {
+            stored[0] = invocation.getArgument(1);
+            return true;
+        });
+
+        new PasswordMigration(userRepository, passwordHasher, 10).migrate();
+
+        assertThat(passwordHasher.isPlaintext(stored[0])).isFalse();
+        assertThat(passwordHasher.matches("secret", stored[0])).isTrue();
+    }
+}
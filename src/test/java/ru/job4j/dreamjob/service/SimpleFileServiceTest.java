@@ -0,0 +1,311 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.job4j.dreamjob.dto.FileDto;
+import ru.job4j.dreamjob.repository.MemoryFileRepository;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimpleFileServiceTest {
+
+    @TempDir
+    Path storageDirectory;
+
+    private MemoryFileRepository fileRepository;
+
+    private SimpleFileService contentFileService;
+
+    @BeforeEach
+    public void initServices() {
+        fileRepository = new MemoryFileRepository();
+        contentFileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 2), SimpleFileService.CONTENT_MODE, ThumbnailGenerator.disabled());
+    }
+
+    @DisplayName("Одинаковое содержимое хранится одним блобом")
+    @Test
+    void whenSaveSameContentTwiceThenOneBlob() {
+        var first = contentFileService.save(new FileDto("logo.png", new byte[] {1, 2, 3}));
+        var second = contentFileService.save(new FileDto("other.png", new byte[] {1, 2, 3}));
+
+        assertThat(first.getId()).isNotEqualTo(second.getId());
+        assertThat(first.getPath()).isEqualTo(second.getPath());
+        assertThat(first.getHash()).isEqualTo(second.getHash());
+        assertThat(Path.of(first.getPath()).getParent().getParent().getParent()).isEqualTo(storageDirectory);
+        assertThat(Files.exists(Path.of(first.getPath()))).isTrue();
+    }
+
+    @DisplayName("Разное содержимое хранится разными блобами")
+    @Test
+    void whenSaveDifferentContentThenDifferentBlobs() {
+        var first = contentFileService.save(new FileDto("a.png", new byte[] {1}));
+        var second = contentFileService.save(new FileDto("b.png", new byte[] {2}));
+
+        assertThat(first.getPath()).isNotEqualTo(second.getPath());
+    }
+
+    @DisplayName("Блоб удаляется только вместе с последней ссылкой на него")
+    @Test
+    void whenDeleteReferencesThenBlobRemovedWithLastOne() {
+        var first = contentFileService.save(new FileDto("a.png", new byte[] {1, 2, 3}));
+        var second = contentFileService.save(new FileDto("b.png", new byte[] {1, 2, 3}));
+        var blob = Path.of(first.getPath());
+
+        contentFileService.deleteById(first.getId());
+        assertThat(Files.exists(blob)).isTrue();
+        assertThat(contentFileService.getFileResourceById(second.getId())).isPresent();
+
+        contentFileService.deleteById(second.getId());
+        assertThat(Files.exists(blob)).isFalse();
+    }
+
+    @DisplayName("Временные файлы загрузки не остаются в хранилище")
+    @Test
+    void whenSaveByContentThenNoTemporaryFilesLeft() throws Exception {
+        contentFileService.save(new FileDto("a.png", new byte[] {1, 2, 3}));
+        contentFileService.save(new FileDto("b.png", new byte[] {1, 2, 3}));
+
+        try (var files = Files.list(storageDirectory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @DisplayName("В режиме uuid каждый файл хранится отдельно")
+    @Test
+    void whenUuidModeThenEveryFileStoredSeparately() {
+        var uuidFileService = new SimpleFileService(fileRepository, storageDirectory.toString());
+        var first = uuidFileService.save(new FileDto("a.png", new byte[] {1, 2, 3}));
+        var second = uuidFileService.save(new FileDto("a.png", new byte[] {1, 2, 3}));
+
+        assertThat(first.getPath()).isNotEqualTo(second.getPath());
+
+        uuidFileService.deleteById(first.getId());
+        assertThat(Files.exists(Path.of(first.getPath()))).isFalse();
+        assertThat(Files.exists(Path.of(second.getPath()))).isTrue();
+    }
+
+    @DisplayName("Файлы раскладываются по подкаталогам из префикса имени")
+    @Test
+    void whenLayoutHasLevelsThenFilesAreSharded() {
+        var layout = new FileStorageLayout(storageDirectory.toString(), 3);
+
+        var path = layout.resolve("abcdef0123");
+
+        assertThat(path).isEqualTo(storageDirectory.resolve("ab").resolve("cd").resolve("ef").resolve("abcdef0123"));
+        assertThat(new FileStorageLayout(storageDirectory.toString(), 0).resolve("abcdef"))
+                .isEqualTo(storageDirectory.resolve("abcdef"));
+    }
+
+    @DisplayName("Миграция переносит файлы в новую раскладку и переписывает path")
+    @Test
+    void whenMigrateFlatStorageThenFilesMovedAndPathsRewritten() throws Exception {
+        var flatFileService = new SimpleFileService(fileRepository, storageDirectory.toString());
+        var first = flatFileService.save(new FileDto("a.png", new byte[] {1}));
+        var second = flatFileService.save(new FileDto("b.png", new byte[] {2}));
+        var shardedFileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 2), SimpleFileService.UUID_MODE, ThumbnailGenerator.disabled());
+
+        var moved = shardedFileService.migrateToLayout();
+        var movedAgain = shardedFileService.migrateToLayout();
+
+        assertThat(moved).isEqualTo(2);
+        assertThat(movedAgain).isZero();
+        for (var file : List.of(first, second)) {
+            var path = Path.of(fileRepository.findById(file.getId()).get().getPath());
+            assertThat(path.getParent().getParent().getParent()).isEqualTo(storageDirectory);
+            assertThat(Files.exists(path)).isTrue();
+        }
+        try (var files = Files.list(storageDirectory)) {
+            assertThat(files.filter(Files::isRegularFile)).isEmpty();
+        }
+    }
+
+    @DisplayName("Миграция ждёт, пока занят путь, в который переносится файл")
+    @Test
+    void whenTargetPathLockedThenMigrationWaits() throws Exception {
+        var file = new SimpleFileService(fileRepository, storageDirectory.toString())
+                .save(new FileDto("a.png", new byte[] {1}));
+        var layout = new FileStorageLayout(storageDirectory.toString(), 2);
+        var shardedFileService = new SimpleFileService(fileRepository, layout,
+                SimpleFileService.UUID_MODE, ThumbnailGenerator.disabled());
+        var target = layout.resolve(Path.of(file.getPath()).getFileName().toString()).toString();
+        var migration = new Thread(shardedFileService::migrateToLayout);
+
+        synchronized (shardedFileService.lockFor(target)) {
+            migration.start();
+            Thread.sleep(200);
+            assertThat(fileRepository.findById(file.getId()).get().getPath()).isEqualTo(file.getPath());
+        }
+        migration.join(5_000);
+
+        assertThat(fileRepository.findById(file.getId()).get().getPath()).isEqualTo(target);
+    }
+
+    @DisplayName("Загрузка пишется на диск потоком, размер и хэш считаются по ходу записи")
+    @Test
+    void whenSaveLargeStreamThenMemoryDoesNotDependOnFileSize() {
+        var size = 64L * 1024 * 1024;
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        contentFileService.save(new FileDto("warmup.bin", 1024, () -> zeros(1024)));
+
+        var before = threads.getCurrentThreadAllocatedBytes();
+        var file = contentFileService.save(new FileDto("large.bin", size, () -> zeros(size)));
+        var allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertThat(file.getSize()).isEqualTo(size);
+        assertThat(file.getHash()).hasSize(64);
+        assertThat(Path.of(file.getPath()).toFile().length()).isEqualTo(size);
+        assertThat(allocated).isLessThan(1024L * 1024);
+    }
+
+    @DisplayName("Для картинки строятся копии нужной ширины, и отдаётся наименьшая подходящая")
+    @Test
+    void whenImageSavedThenDerivativesServedByWidth() throws Exception {
+        var thumbnails = new ThumbnailGenerator(new int[] {160, 320}, 1, 10);
+        var fileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 0), SimpleFileService.UUID_MODE, thumbnails);
+        var file = fileService.save(new FileDto("photo.png", png(1000, 500)));
+        awaitDerivative(thumbnails, file.getPath(), 320);
+
+        var resource = fileService.getFileResourceById(file.getId(), 200).get();
+        var image = ImageIO.read(resource.getContent().getInputStream());
+
+        assertThat(resource.isCacheable()).isTrue();
+        assertThat(resource.getName()).isEqualTo("photo.png.w320.jpg");
+        assertThat(resource.getHash()).isEqualTo(file.getHash() + ".w320.jpg");
+        assertThat(image.getWidth()).isEqualTo(320);
+        assertThat(image.getHeight()).isEqualTo(160);
+        thumbnails.shutdown();
+    }
+
+    @DisplayName("Пока копии нет, отдаётся оригинал без долгого кэширования, а копия ставится в очередь")
+    @Test
+    void whenDerivativeNotReadyThenOriginalNotCacheableAndDerivativeRequested() throws Exception {
+        var layout = new FileStorageLayout(storageDirectory.toString(), 0);
+        var stored = new SimpleFileService(fileRepository, layout, SimpleFileService.UUID_MODE,
+                ThumbnailGenerator.disabled()).save(new FileDto("photo.png", png(800, 400)));
+        var thumbnails = new ThumbnailGenerator(new int[] {320}, 1, 10);
+        var fileService = new SimpleFileService(fileRepository, layout, SimpleFileService.UUID_MODE, thumbnails);
+
+        var resource = fileService.getFileResourceById(stored.getId(), 320).get();
+
+        assertThat(resource.isCacheable()).isFalse();
+        assertThat(resource.getName()).isEqualTo("photo.png");
+        assertThat(resource.getHash()).isEqualTo(stored.getHash());
+        awaitDerivative(thumbnails, stored.getPath(), 320);
+        assertThat(fileService.getFileResourceById(stored.getId(), 320).get().getName())
+                .isEqualTo("photo.png.w320.jpg");
+        thumbnails.shutdown();
+    }
+
+    @DisplayName("Если копии нужной ширины не будет, оригинал кэшируется как обычно")
+    @Test
+    void whenNoConfiguredWidthFitsThenOriginalCacheable() throws Exception {
+        var thumbnails = new ThumbnailGenerator(new int[] {160}, 1, 10);
+        var fileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 0), SimpleFileService.UUID_MODE, thumbnails);
+        var file = fileService.save(new FileDto("photo.png", png(800, 400)));
+
+        var resource = fileService.getFileResourceById(file.getId(), 640).get();
+
+        assertThat(resource.isCacheable()).isTrue();
+        assertThat(resource.getName()).isEqualTo("photo.png");
+        assertThat(contentFileService.getFileResourceById(
+                contentFileService.save(new FileDto("a.png", new byte[] {1})).getId(), 320).get().isCacheable())
+                .isTrue();
+        thumbnails.shutdown();
+    }
+
+    @DisplayName("Узкая картинка не увеличивается, а не-картинка пропускается и дальше кэшируется как обычно")
+    @Test
+    void whenNarrowImageOrNotImageThenNoUpscaleAndNoDerivatives() throws Exception {
+        var thumbnails = new ThumbnailGenerator(new int[] {640}, 1, 10);
+        var fileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 0), SimpleFileService.UUID_MODE, thumbnails);
+        var text = fileService.save(new FileDto("notes.txt", new byte[] {1, 2, 3}));
+        var narrow = fileService.save(new FileDto("narrow.png", png(100, 50)));
+        awaitDerivative(thumbnails, narrow.getPath(), 640);
+
+        var image = ImageIO.read(fileService.getFileResourceById(narrow.getId(), 640).get()
+                .getContent().getInputStream());
+
+        assertThat(image.getWidth()).isEqualTo(100);
+        assertThat(fileService.getFileResourceById(text.getId(), 640).get().isCacheable()).isTrue();
+        thumbnails.shutdown();
+    }
+
+    @DisplayName("Копии удаляются вместе с оригиналом")
+    @Test
+    void whenDeleteImageThenDerivativesDeleted() throws Exception {
+        var thumbnails = new ThumbnailGenerator(new int[] {160}, 1, 10);
+        var fileService = new SimpleFileService(fileRepository,
+                new FileStorageLayout(storageDirectory.toString(), 0), SimpleFileService.UUID_MODE, thumbnails);
+        var file = fileService.save(new FileDto("photo.png", png(400, 400)));
+        var derivative = awaitDerivative(thumbnails, file.getPath(), 160);
+
+        fileService.deleteById(file.getId());
+
+        assertThat(Files.exists(derivative)).isFalse();
+        assertThat(Files.exists(Path.of(file.getPath()))).isFalse();
+        thumbnails.shutdown();
+    }
+
+    /* миниатюры строятся в фоне одним потоком по очереди, поэтому появление последней копии
+    значит, что все задачи до неё уже выполнены */
+    private Path awaitDerivative(ThumbnailGenerator thumbnails, String path, int width) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            var derivative = thumbnails.find(path, width);
+            if (derivative.isPresent()) {
+                return derivative.get();
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Миниатюра не построена: " + path);
+    }
+
+    private byte[] png(int width, int height) throws IOException {
+        var out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private InputStream zeros(long size) {
+        return new InputStream() {
+            private long remaining = size;
+
+            @Override
+            public int read() {
+                if (remaining == 0) {
+                    return -1;
+                }
+                remaining--;
+                return 0;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) {
+                if (remaining == 0) {
+                    return -1;
+                }
+                var count = (int) Math.min(length, remaining);
+                Arrays.fill(buffer, offset, offset + count, (byte) 0);
+                remaining -= count;
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,139 @@
+package ru.job4j.dreamjob.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.job4j.dreamjob.model.User;
+import ru.job4j.dreamjob.repository.UserRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SimpleUserServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    /* сравнение с открытым текстом включено, чтобы проверить вход по строкам, ещё не прошедшим миграцию */
+    private final PasswordHasher passwordHasher = new PasswordHasher(4, 1, 10, Duration.ofSeconds(10), true);
+
+    private final UserService userService = new SimpleUserService(userRepository, passwordHasher);
+
+    @AfterEach
+    void closeHasher() {
+        passwordHasher.close();
+    }
+
+    @DisplayName("При регистрации в базу попадает хэш, а не пароль")
+    @Test
+    void whenSaveThenPasswordIsHashed() {
+        var stored = new String[1];
+        when(userRepository.save(any())).thenAnswer(invocation -> {
+            User saved = invocation.getArgument(0);
+            stored[0] = saved.getPassword();
+            return Optional.of(saved);
+        });
+        var user = new User(0, "email", "name", "secret");
+
+        userService.save(user);
+
+        assertThat(stored[0]).startsWith("$2a$04$");
+        assertThat(passwordHasher.matches("secret", stored[0])).isTrue();
+        assertThat(user.getPassword()).isNull();
+    }
+
+    @DisplayName("Вход по хэшу с текущей стоимостью не перезаписывает пароль")
+    @Test
+    void whenLoginWithHashThenNoRehash() {
+        var hash = passwordHasher.hash("secret");
+        when(userRepository.findByEmail("email")).thenReturn(Optional.of(new User(1, "email", "name", hash)));
+
+        assertThat(userService.findByEmailAndPassword("email", "secret")).isPresent();
+        assertThat(userService.findByEmailAndPassword("email", "wrong")).isEmpty();
+        verify(userRepository, never()).updatePassword(anyInt(), anyString());
+    }
+
+    @DisplayName("Пароль открытым текстом после успешного входа заменяется хэшем")
+    @Test
+    void whenLoginWithLegacyPasswordThenRehash() {
+        when(userRepository.findByEmail("email")).thenReturn(Optional.of(new User(1, "email", "name", "secret")));
+
+        var user = userService.findByEmailAndPassword("email", "secret");
+
+        assertThat(user).isPresent();
+        assertThat(user.get().getPassword()).isNull();
+        verify(userRepository).updatePassword(eq(1), startsWith("$2a$04$"));
+    }
+
+    @DisplayName("Неверный пароль открытым текстом не даёт войти и не мигрирует строку")
+    @Test
+    void whenLoginWithWrongLegacyPasswordThenEmpty() {
+        when(userRepository.findByEmail("email")).thenReturn(Optional.of(new User(1, "email", "name", "secret")));
+
+        assertThat(userService.findByEmailAndPassword("email", "secre")).isEmpty();
+        verify(userRepository, never()).updatePassword(anyInt(), anyString());
+    }
+
+    @DisplayName("Без security.password.legacy-plaintext верный пароль открытым текстом не даёт войти")
+    @Test
+    void whenLegacyPlaintextDisabledThenPlaintextRejected() {
+        var strict = new PasswordHasher(4, 1, 10, Duration.ofSeconds(10), false);
+        try {
+            var service = new SimpleUserService(userRepository, strict);
+            when(userRepository.findByEmail("email")).thenReturn(Optional.of(new User(1, "email", "name", "secret")));
+
+            assertThat(service.findByEmailAndPassword("email", "secret")).isEmpty();
+            verify(userRepository, never()).updatePassword(anyInt(), anyString());
+        } finally {
+            strict.close();
+        }
+    }
+
+    @DisplayName("Хэш с меньшей стоимостью, чем настроена, перезаписывается при входе")
+    @Test
+    void whenLoginWithWeakerHashThenRehash() {
+        var stronger = new PasswordHasher(5, 1, 10, Duration.ofSeconds(10), false);
+        try {
+            var service = new SimpleUserService(userRepository, stronger);
+            when(userRepository.findByEmail("email"))
+                    .thenReturn(Optional.of(new User(1, "email", "name", passwordHasher.hash("secret"))));
+
+            assertThat(service.findByEmailAndPassword("email", "secret")).isPresent();
+            verify(userRepository).updatePassword(eq(1), startsWith("$2a$05$"));
+        } finally {
+            stronger.close();
+        }
+    }
+
+    @DisplayName("Неизвестный email - пустой результат")
+    @Test
+    void whenUnknownEmailThenEmpty() {
+        when(userRepository.findByEmail("email")).thenReturn(Optional.empty());
+
+        assertThat(userService.findByEmailAndPassword("email", "secret")).isEmpty();
+    }
+
+    @DisplayName("Проверка, не уложившаяся в timeout, отклоняется PasswordHasherBusyException")
+    @Test
+    void whenHasherIsSaturatedThenBusy() {
+        var slow = new PasswordHasher(12, 1, 1, Duration.ofMillis(1), false);
+        try {
+            assertThatThrownBy(() -> slow.hash("secret")).isInstanceOf(PasswordHasherBusyException.class);
+            assertThatThrownBy(() -> slow.hash("secret")).isInstanceOf(PasswordHasherBusyException.class);
+            assertThatThrownBy(() -> slow.hash("secret")).isInstanceOf(PasswordHasherBusyException.class);
+        } finally {
+            slow.close();
+        }
+    }
+}